@@ -1,8 +1,11 @@
 package com.examly.springapp.config;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
@@ -10,6 +13,8 @@ import com.examly.springapp.model.Doctor;
 import com.examly.springapp.model.Patient;
 import com.examly.springapp.model.Role;
 import com.examly.springapp.model.Admin;
+import com.examly.springapp.model.Appointment;
+import com.examly.springapp.model.AppointmentStatus;
 import com.examly.springapp.repository.DoctorRepository;
 import com.examly.springapp.repository.PatientRepository;
 import com.examly.springapp.repository.AdminRepository;
@@ -21,19 +26,25 @@ public class DataInitializer implements CommandLineRunner {
     private final DoctorRepository doctorRepository;
     private final AdminRepository adminRepository;
     private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
 
     public DataInitializer(PatientRepository patientRepository,
                           DoctorRepository doctorRepository,
                           AdminRepository adminRepository,
-                          PasswordEncoder passwordEncoder) {
+                          PasswordEncoder passwordEncoder,
+                          JdbcTemplate jdbcTemplate) {
         this.patientRepository = patientRepository;
         this.doctorRepository = doctorRepository;
         this.adminRepository = adminRepository;
         this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
     public void run(String... args) {
+        alignAppointmentSequence();
+        backfillActiveSlots();
+
         // Initialize Patients
         if (patientRepository.count() == 0) {
             Patient p1 = new Patient();
@@ -109,4 +120,50 @@ public class DataInitializer implements CommandLineRunner {
         System.out.println("   Doctor: smith@example.com / doctor123");
         System.out.println("   Admin: admin@example.com / admin123");
     }
+
+    // Appointments booked before active_slot existed have it NULL, which the unique index ignores.
+    // Fill it in the Appointment.slotKey format for rows that hold their slot. Where several such
+    // rows share a slot, only the oldest gets the key and the duplicates are reported for cleanup.
+    void backfillActiveSlots() {
+        try {
+            String holdsSlot = "status IS NOT NULL AND status NOT IN ('" + AppointmentStatus.CANCELLED + "', '" + AppointmentStatus.REJECTED + "') "
+                    + "AND appointment_date IS NOT NULL AND appointment_time IS NOT NULL";
+            List<Map<String, Object>> duplicates = jdbcTemplate.queryForList(
+                "SELECT doctor_id, appointment_date, appointment_time, COUNT(*) AS bookings, GROUP_CONCAT(id ORDER BY id) AS ids " +
+                "FROM appointment WHERE " + holdsSlot + " " +
+                "GROUP BY doctor_id, appointment_date, appointment_time HAVING COUNT(*) > 1");
+            for (Map<String, Object> duplicate : duplicates) {
+                System.out.println("⚠️ Slot booked " + duplicate.get("bookings") + " times: doctor " + duplicate.get("doctor_id")
+                        + " on " + duplicate.get("appointment_date") + " at " + duplicate.get("appointment_time")
+                        + " (appointments " + duplicate.get("ids") + ")");
+            }
+
+            int updated = jdbcTemplate.update(
+                "UPDATE appointment SET active_slot = CONCAT(doctor_id, '@', DATE_FORMAT(appointment_date, '%Y-%m-%d'), 'T', DATE_FORMAT(appointment_time, '%H:%i')) " +
+                "WHERE id IN (SELECT id FROM (" +
+                "SELECT MIN(id) AS id FROM appointment WHERE " + holdsSlot + " " +
+                "GROUP BY doctor_id, appointment_date, appointment_time HAVING SUM(active_slot IS NOT NULL) = 0) keepers)");
+            if (updated > 0) {
+                System.out.println("✅ Active slot keys filled in for " + updated + " existing appointments");
+            }
+        } catch (Exception e) {
+            System.out.println("⚠️ Could not backfill active slot keys: " + e.getMessage());
+        }
+    }
+
+    // Appointment ids used to come from AUTO_INCREMENT. Move the pooled sequence past the highest
+    // existing id (plus one allocation block, since pooled ids are handed out below the stored value).
+    void alignAppointmentSequence() {
+        try {
+            int updated = jdbcTemplate.update(
+                "UPDATE appointment_seq SET next_val = (SELECT COALESCE(MAX(id), 0) + ? FROM appointment) " +
+                "WHERE next_val <= (SELECT COALESCE(MAX(id), 0) + ? FROM appointment)",
+                Appointment.ID_ALLOCATION_SIZE + 1, Appointment.ID_ALLOCATION_SIZE);
+            if (updated > 0) {
+                System.out.println("✅ Appointment id sequence moved past existing appointments");
+            }
+        } catch (Exception e) {
+            System.out.println("⚠️ Could not align appointment id sequence: " + e.getMessage());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.examly.springapp.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background sweepers such as slot hold expiry
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,6 +1,7 @@
 package com.examly.springapp.config;
 
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -29,10 +30,16 @@ public class SecurityConfig {
 
     private final MyUserDetailsService userDetailsService;
     private final JwtFilter jwtFilter;
+    private final int bcryptStrength;
 
-    public SecurityConfig(MyUserDetailsService userDetailsService, JwtFilter jwtFilter) {
+    public SecurityConfig(MyUserDetailsService userDetailsService, JwtFilter jwtFilter,
+                          @Value("${security.password.bcrypt-strength:10}") int bcryptStrength) {
+        if (bcryptStrength < 4 || bcryptStrength > 31) {
+            throw new IllegalArgumentException("security.password.bcrypt-strength must be between 4 and 31");
+        }
         this.userDetailsService = userDetailsService;
         this.jwtFilter = jwtFilter;
+        this.bcryptStrength = bcryptStrength;
     }
 
     @Bean
@@ -52,15 +59,25 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.GET, "/api/doctors").hasAnyRole("PATIENT", "ADMIN")
                 .requestMatchers(HttpMethod.POST, "/api/doctors").hasRole("ADMIN")
                 .requestMatchers("/api/doctors/*/availability").hasAnyRole("PATIENT", "DOCTOR", "ADMIN")
+                .requestMatchers(HttpMethod.GET, "/api/doctors/*/next-available").hasAnyRole("PATIENT", "DOCTOR", "ADMIN")
+                .requestMatchers(HttpMethod.GET, "/api/doctors/free-slots").hasAnyRole("PATIENT", "DOCTOR", "ADMIN")
+                .requestMatchers(HttpMethod.GET, "/api/doctors/suggest").hasAnyRole("PATIENT", "DOCTOR", "ADMIN")
+                .requestMatchers(HttpMethod.GET, "/api/doctors/catalog", "/api/doctors/specializations").hasAnyRole("PATIENT", "DOCTOR", "ADMIN")
                 .requestMatchers("/api/doctors/docdelete/**").hasRole("ADMIN")
                 .requestMatchers("/api/doctors/**").hasAnyRole("DOCTOR", "ADMIN")
                 .requestMatchers(HttpMethod.GET, "/api/appointments").hasAnyRole("DOCTOR", "ADMIN")
                 .requestMatchers(HttpMethod.POST, "/api/appointments").hasAnyRole("PATIENT", "ADMIN")
+                .requestMatchers(HttpMethod.GET, "/api/appointments/export").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/appointments/series").hasAnyRole("PATIENT", "ADMIN")
+                .requestMatchers("/api/appointments/holds/**").hasAnyRole("PATIENT", "ADMIN")
                 .requestMatchers("/api/appointments/patient/**").hasAnyRole("PATIENT", "DOCTOR", "ADMIN")
                 .requestMatchers("/api/appointments/doctor/**").hasAnyRole("DOCTOR", "ADMIN")
+                .requestMatchers("/api/appointments/bulk/**").hasAnyRole("DOCTOR", "ADMIN")
                 .requestMatchers("/api/appointments/*/status").hasAnyRole("DOCTOR", "ADMIN")
                 .requestMatchers("/api/appointments/*/cancel").hasAnyRole("PATIENT", "DOCTOR", "ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/appointments/**").hasRole("ADMIN")
+                .requestMatchers("/api/waitlist/**").hasAnyRole("PATIENT", "ADMIN")
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .requestMatchers("/api/profile/**").authenticated()
                 .anyRequest().authenticated()
             )
@@ -116,12 +133,14 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Hashes weaker than the configured strength are rewritten after a successful login
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
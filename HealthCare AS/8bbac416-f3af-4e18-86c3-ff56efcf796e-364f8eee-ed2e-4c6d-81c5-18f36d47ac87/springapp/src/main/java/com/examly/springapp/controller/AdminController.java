@@ -0,0 +1,52 @@
+package com.examly.springapp.controller;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.examly.springapp.dto.AppointmentStats;
+import com.examly.springapp.model.VerifiedTokenCache;
+import com.examly.springapp.service.AdminStatsService;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    // Appointment counts by status, doctor, day and specialization; defaults to the last 30 days
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            AppointmentStats stats = adminStatsService.getStats(from, to);
+            return ResponseEntity.ok(stats);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("Error computing admin stats: " + e.getMessage());
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to compute stats"));
+        }
+    }
+
+    // Hit rate and size of the verified JWT cache
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/token-cache/stats")
+    public ResponseEntity<VerifiedTokenCache.Stats> getTokenCacheStats() {
+        return ResponseEntity.ok(verifiedTokenCache.getStats());
+    }
+}
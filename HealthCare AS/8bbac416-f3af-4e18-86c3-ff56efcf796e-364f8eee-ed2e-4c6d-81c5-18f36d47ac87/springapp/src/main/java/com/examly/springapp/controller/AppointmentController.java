@@ -1,11 +1,17 @@
 package com.examly.springapp.controller;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -17,14 +23,26 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.examly.springapp.dto.AppointmentDto;
+import com.examly.springapp.dto.AppointmentPageQuery;
+import com.examly.springapp.dto.BookingRequest;
+import com.examly.springapp.dto.BookingResult;
+import com.examly.springapp.dto.SeriesRequest;
+import com.examly.springapp.dto.SeriesResult;
+import com.examly.springapp.dto.TransitionResult;
 import com.examly.springapp.model.Appointment;
 import com.examly.springapp.model.AppointmentStatus;
+import com.examly.springapp.model.AppointmentTransition;
 import com.examly.springapp.model.Doctor;
+import com.examly.springapp.service.AppointmentExportService;
 import com.examly.springapp.service.AppointmentService;
 import com.examly.springapp.service.DoctorService;
 import com.examly.springapp.service.PatientService;
+import com.examly.springapp.service.SlotHoldService;
+import com.examly.springapp.service.SlotOccupancyIndex;
 
 @RestController
 @RequestMapping("/api/appointments")
@@ -38,11 +56,20 @@ public class AppointmentController {
     
     @Autowired
     private PatientService patientService;
+    
+    @Autowired
+    private SlotOccupancyIndex slotOccupancyIndex;
+    
+    @Autowired
+    private SlotHoldService slotHoldService;
+    
+    @Autowired
+    private AppointmentExportService appointmentExportService;
 
     // Get appointments for the logged-in doctor
     @PreAuthorize("hasRole('DOCTOR')")
     @GetMapping("/my-appointments")
-    public ResponseEntity<List<Appointment>> getMyAppointments(Authentication authentication) {
+    public ResponseEntity<?> getMyAppointments(AppointmentPageQuery page, Authentication authentication) {
         try {
             String email = authentication.getName();
             Doctor doctor = doctorService.getDoctorByEmail(email);
@@ -50,9 +77,14 @@ public class AppointmentController {
             if (doctor == null) {
                 return ResponseEntity.status(404).body(null);
             }
+            if (page.isPaged()) {
+                return ResponseEntity.ok(appointmentService.findPage(doctor.getId(), null, page));
+            }
             
-            List<Appointment> appointments = appointmentService.getAppointmentsByDoctor(doctor);
+            List<AppointmentDto> appointments = appointmentService.listByDoctor(doctor.getId());
             return ResponseEntity.ok(appointments);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             System.err.println("Error fetching doctor appointments: " + e.getMessage());
             return ResponseEntity.status(500).body(null);
@@ -91,18 +123,75 @@ public class AppointmentController {
         }
     }
     
+    // Apply one action to many appointments, e.g. confirm a doctor's whole clinic session
+    @PreAuthorize("hasAnyRole('DOCTOR', 'ADMIN')")
+    @PatchMapping("/bulk/{action}")
+    public ResponseEntity<?> bulkTransition(@PathVariable String action, @RequestBody Map<String, Object> body,
+                                            Authentication authentication) {
+        try {
+            AppointmentTransition transition = AppointmentTransition.valueOf(action.toUpperCase());
+            boolean isAdmin = authentication.getAuthorities().stream()
+                    .anyMatch(grantedAuthority -> grantedAuthority.getAuthority().equals("ROLE_ADMIN"));
+            
+            List<Long> ids = null;
+            if (body.get("ids") instanceof List<?> rawIds) {
+                ids = rawIds.stream().map(id -> Long.parseLong(id.toString())).toList();
+            }
+            Long doctorId = body.get("doctorId") != null ? Long.parseLong(body.get("doctorId").toString()) : null;
+            LocalDate date = body.get("date") != null ? LocalDate.parse(body.get("date").toString()) : null;
+            
+            List<TransitionResult> results = appointmentService.bulkTransition(transition, ids, doctorId, date,
+                    authentication.getName(), isAdmin);
+            return ResponseEntity.ok(results);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.status(400).body(Map.of("error", "Invalid date format"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to update appointments: " + e.getMessage()));
+        }
+    }
+    
     // View all appointments
     @PreAuthorize("hasAnyRole('PATIENT', 'DOCTOR', 'ADMIN')")
     @GetMapping
-    public ResponseEntity<List<Appointment>> getAllAppointments() {
+    public ResponseEntity<?> getAllAppointments(AppointmentPageQuery page) {
         try {
-            List<Appointment> appointments = appointmentService.getAllAppointments();
+            if (page.isPaged()) {
+                return ResponseEntity.ok(appointmentService.findPage(null, null, page));
+            }
+            List<AppointmentDto> appointments = appointmentService.listAll();
             return ResponseEntity.ok(appointments);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).build();
         }
     }
     
+    // Stream appointments of a date range for reporting, as NDJSON or CSV
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/export")
+    public void exportAppointments(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                   @RequestParam(defaultValue = "ndjson") String format,
+                                   HttpServletResponse response) throws IOException {
+        AppointmentExportService.Format exportFormat;
+        try {
+            exportFormat = appointmentExportService.validate(from, to, format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(400, e.getMessage());
+            return;
+        }
+        
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"appointments-" + from + "-to-" + to + "." + exportFormat.getExtension() + "\"");
+        long rows = appointmentExportService.export(from, to, exportFormat, response.getOutputStream());
+        System.out.println("📤 Exported " + rows + " appointments from " + from + " to " + to + " as " + exportFormat);
+    }
+    
     @PreAuthorize("hasAnyRole('PATIENT', 'DOCTOR', 'ADMIN')")
     @GetMapping("/{id}")
     public ResponseEntity<?> getAppointmentById(@PathVariable Long id) {
@@ -187,6 +276,9 @@ public class AppointmentController {
         } catch (IllegalStateException e) {
             System.out.println("❌ Booking conflict: " + e.getMessage());
             return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } catch (DataIntegrityViolationException e) {
+            System.out.println("❌ Booking conflict detected at commit: " + e.getMostSpecificCause().getMessage());
+            return ResponseEntity.status(409).body(Map.of("error", "The selected time slot was just booked by someone else"));
         } catch (IllegalArgumentException e) {
             System.out.println("❌ Invalid argument: " + e.getMessage());
             return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
@@ -197,6 +289,24 @@ public class AppointmentController {
         }
     }
     
+    // Bulk booking for admins, e.g. re-booking a clinic after an outage
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/batch")
+    public ResponseEntity<?> bookAppointments(@RequestBody List<BookingRequest> bookings) {
+        try {
+            List<BookingResult> results = appointmentService.bookAppointments(bookings);
+            return ResponseEntity.ok(results);
+        } catch (IllegalStateException e) {
+            System.out.println("❌ Batch booking conflict: " + e.getMessage());
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("❌ Failed to book appointments: " + e.getMessage());
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to book appointments: " + e.getMessage()));
+        }
+    }
+    
     // Approve/Reject appointments
     @PreAuthorize("hasAnyRole('DOCTOR', 'ADMIN')")
     @PatchMapping("/{id}/status")
@@ -213,12 +323,15 @@ public class AppointmentController {
     // View appointments by patient
     @PreAuthorize("hasAnyRole('PATIENT', 'DOCTOR', 'ADMIN')")
     @GetMapping("/patient/{id}")
-    public ResponseEntity<?> getByPatient(@PathVariable Long id) {
+    public ResponseEntity<?> getByPatient(@PathVariable Long id, AppointmentPageQuery page) {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             String currentUserEmail = auth.getName();
             
-            List<Appointment> appointments = appointmentService.getByPatientId(id);
+            if (page.isPaged()) {
+                return ResponseEntity.ok(appointmentService.findPage(null, id, page));
+            }
+            List<AppointmentDto> appointments = appointmentService.listByPatient(id);
             return ResponseEntity.ok(appointments);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
@@ -228,9 +341,12 @@ public class AppointmentController {
     // View appointments by doctor
     @PreAuthorize("hasAnyRole('DOCTOR', 'ADMIN')")
     @GetMapping("/doctor/{id}")
-    public ResponseEntity<?> getByDoctor(@PathVariable Long id) {
+    public ResponseEntity<?> getByDoctor(@PathVariable Long id, AppointmentPageQuery page) {
         try {
-            List<Appointment> appointments = appointmentService.getByDoctorId(id);
+            if (page.isPaged()) {
+                return ResponseEntity.ok(appointmentService.findPage(id, null, page));
+            }
+            List<AppointmentDto> appointments = appointmentService.listByDoctor(id);
             return ResponseEntity.ok(appointments);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
@@ -264,4 +380,105 @@ public class AppointmentController {
             return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
         }
     }
+    
+    // Book a recurring series, e.g. weekly follow-ups
+    @PreAuthorize("hasAnyRole('PATIENT', 'ADMIN')")
+    @PostMapping("/series")
+    public ResponseEntity<?> bookSeries(@RequestBody SeriesRequest request, Authentication authentication) {
+        try {
+            boolean isAdmin = authentication.getAuthorities().stream()
+                    .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+            if (isAdmin && request.patientId() == null) {
+                return ResponseEntity.status(400).body(Map.of("error", "Patient ID is required for admin users"));
+            }
+            // Patients always book for themselves
+            SeriesRequest series = isAdmin ? request : new SeriesRequest(
+                    patientService.getPatientIdByEmail(authentication.getName()), request.doctorId(), request.startDate(),
+                    request.appointmentTime(), request.rule(), request.reason(), request.allOrNothing());
+            
+            SeriesResult result = appointmentService.bookSeries(series);
+            System.out.println("🔁 Series booking: " + result.booked() + " of " + result.occurrences().size() + " appointments booked");
+            return ResponseEntity.status(result.booked() > 0 ? 201 : 409).body(result);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("❌ Failed to book series: " + e.getMessage());
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to book series: " + e.getMessage()));
+        }
+    }
+    
+    // Hold a slot while the patient completes the booking form
+    @PreAuthorize("hasAnyRole('PATIENT', 'ADMIN')")
+    @PostMapping("/holds")
+    public ResponseEntity<?> holdSlot(@RequestBody Map<String, Object> body, Authentication authentication) {
+        try {
+            boolean isAdmin = authentication.getAuthorities().stream()
+                    .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+            Long patientId;
+            if (isAdmin) {
+                if (body.get("patientId") == null) {
+                    return ResponseEntity.status(400).body(Map.of("error", "Patient ID is required for admin users"));
+                }
+                patientId = Long.parseLong(body.get("patientId").toString());
+            } else {
+                patientId = patientService.getPatientIdByEmail(authentication.getName());
+            }
+            if (body.get("doctorId") == null || body.get("appointmentDate") == null || body.get("appointmentTime") == null) {
+                return ResponseEntity.status(400).body(Map.of("error", "Doctor ID, appointment date and time are required"));
+            }
+            
+            SlotHoldService.Hold hold = slotHoldService.hold(patientId,
+                    Long.parseLong(body.get("doctorId").toString()),
+                    LocalDate.parse(body.get("appointmentDate").toString()),
+                    LocalTime.parse(body.get("appointmentTime").toString()));
+            return ResponseEntity.status(201).body(hold);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    // Give a held slot back before the hold expires
+    @PreAuthorize("hasAnyRole('PATIENT', 'ADMIN')")
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<String> releaseHold(@PathVariable String holdId, Authentication authentication) {
+        boolean isAdmin = authentication.getAuthorities().stream()
+                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+        Long patientId = null;
+        if (!isAdmin) {
+            try {
+                patientId = patientService.getPatientIdByEmail(authentication.getName());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(403).body("Access Denied: Patient not found");
+            }
+        }
+        
+        String result = slotHoldService.release(holdId, patientId, isAdmin);
+        if (result.contains("not found")) {
+            return ResponseEntity.status(404).body(result);
+        } else if (result.contains("only release your own")) {
+            return ResponseEntity.status(403).body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
+    
+    // Verify the in-memory slot occupancy index against the appointment table
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/occupancy/consistency")
+    public ResponseEntity<?> checkOccupancyConsistency(@RequestParam(defaultValue = "false") boolean repair) {
+        try {
+            SlotOccupancyIndex.ConsistencyReport report = slotOccupancyIndex.checkConsistency();
+            if (!report.consistent() && repair) {
+                System.out.println("⚠️ Slot occupancy index drifted, rebuilding: " + report.missingFromIndex().size()
+                        + " missing, " + report.staleInIndex().size() + " stale");
+                slotOccupancyIndex.rebuild();
+            }
+            return ResponseEntity.ok(report);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to check slot occupancy: " + e.getMessage()));
+        }
+    }
 }
\ No newline at end of file
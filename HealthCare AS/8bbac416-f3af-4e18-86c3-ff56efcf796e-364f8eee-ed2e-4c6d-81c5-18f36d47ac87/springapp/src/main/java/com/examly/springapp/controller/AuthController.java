@@ -1,11 +1,20 @@
 package com.examly.springapp.controller;
 
 import java.util.Map;
-
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.*;
 
 import com.examly.springapp.dto.AuthRequest;
@@ -16,8 +25,13 @@ import com.examly.springapp.model.JwtUtil;
 import com.examly.springapp.model.Patient;
 import com.examly.springapp.model.Role;
 import com.examly.springapp.repository.AdminRepository;
-import com.examly.springapp.repository.DoctorRepository;
-import com.examly.springapp.repository.PatientRepository;
+import com.examly.springapp.service.DoctorService;
+import com.examly.springapp.service.MyUserDetailsService.AccountDetails;
+import com.examly.springapp.service.PatientService;
+import com.examly.springapp.service.TokenRevocationService;
+import com.examly.springapp.service.UserDirectory;
+
+import io.jsonwebtoken.JwtException;
 
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -29,24 +43,36 @@ public class AuthController {
     private final com.examly.springapp.service.MyUserDetailsService userDetailsService;
     private final JwtUtil jwtUtil;
     private final PasswordEncoder passwordEncoder;
-    private final PatientRepository patientRepository;
-    private final DoctorRepository doctorRepository;
     private final AdminRepository adminRepository;
+    private final DoctorService doctorService;
+    private final PatientService patientService;
+    private final UserDirectory userDirectory;
+    private final TokenRevocationService tokenRevocationService;
+    private final ThreadPoolTaskExecutor passwordHashingExecutor;
+    private final long hashingTimeoutMs;
 
     public AuthController(AuthenticationManager authManager,
                           com.examly.springapp.service.MyUserDetailsService userDetailsService,
                           JwtUtil jwtUtil,
                           PasswordEncoder passwordEncoder,
-                          PatientRepository patientRepository,
-                          DoctorRepository doctorRepository,
-                          AdminRepository adminRepository) {
+                          AdminRepository adminRepository,
+                          DoctorService doctorService,
+                          PatientService patientService,
+                          UserDirectory userDirectory,
+                          TokenRevocationService tokenRevocationService,
+                          @Qualifier("passwordHashingExecutor") ThreadPoolTaskExecutor passwordHashingExecutor,
+                          @Value("${security.password.hashing-timeout-ms:10000}") long hashingTimeoutMs) {
         this.authManager = authManager;
         this.userDetailsService = userDetailsService;
         this.jwtUtil = jwtUtil;
         this.passwordEncoder = passwordEncoder;
-        this.patientRepository = patientRepository;
-        this.doctorRepository = doctorRepository;
         this.adminRepository = adminRepository;
+        this.doctorService = doctorService;
+        this.patientService = patientService;
+        this.userDirectory = userDirectory;
+        this.tokenRevocationService = tokenRevocationService;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.hashingTimeoutMs = hashingTimeoutMs;
     }
 
     @PostMapping("/register")
@@ -57,15 +83,13 @@ public class AuthController {
             String password = (String) registrationData.get("password");
             String role = (String) registrationData.get("role");
 
-            // Check if email already exists in any repository
-            if (patientRepository.findByEmail(email).isPresent() ||
-                doctorRepository.findByEmail(email).isPresent() ||
-                adminRepository.findByEmail(email).isPresent()) {
+            // One directory lookup covers patients, doctors and admins
+            if (userDirectory.isRegistered(email)) {
                 return ResponseEntity.status(400).body("Email already exists");
             }
 
-            // Encode password
-            String encodedPassword = passwordEncoder.encode(password);
+            // Encode password on the hashing pool
+            String encodedPassword = hashing(() -> passwordEncoder.encode(password));
 
             if ("PATIENT".equals(role)) {
                 String phoneNumber = (String) registrationData.get("phoneNumber");
@@ -93,7 +117,7 @@ public class AuthController {
                     return ResponseEntity.status(400).body("Invalid date format. Use YYYY-MM-DD");
                 }
 
-                patientRepository.save(patient);
+                patientService.createPatient(patient);
                 return ResponseEntity.ok("Patient registered successfully");
 
             } else if ("DOCTOR".equals(role)) {
@@ -115,7 +139,8 @@ public class AuthController {
                 doctor.setPhoneNumber(phoneNumber);
                 doctor.setSpecialization(specialization);
 
-                doctorRepository.save(doctor);
+                // Through the service so the doctor search index picks the new doctor up
+                doctorService.createDoctor(doctor);
                 return ResponseEntity.ok("Doctor registered successfully");
 
             } else if ("ADMIN".equals(role)) {
@@ -132,13 +157,16 @@ public class AuthController {
                 admin.setRole(Role.ADMIN);
                 admin.setPhoneNumber(phoneNumber);
 
-                adminRepository.save(admin);
+                admin = adminRepository.save(admin);
+                userDirectory.record(Role.ADMIN, admin.getId(), admin.getEmail());
                 return ResponseEntity.ok("Admin registered successfully");
 
             } else {
                 return ResponseEntity.status(400).body("Invalid role specified");
             }
 
+        } catch (TaskRejectedException | TimeoutException e) {
+            return ResponseEntity.status(503).body("Too many registrations in progress, please try again shortly");
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Registration failed: " + e.getMessage());
         }
@@ -149,18 +177,11 @@ public class AuthController {
         try {
             System.out.println("🔐 Login attempt for: " + request.getEmail());
             
-            // Authenticate user
-            authManager.authenticate(
+            // Authenticate user; the principal carries the entity loaded for the password check
+            Authentication authentication = hashing(() -> authManager.authenticate(
                     new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-            );
-
-            // Fetch user from repositories
-            Object user = patientRepository.findByEmail(request.getEmail())
-                    .map(p -> (Object) p)
-                    .orElseGet(() -> doctorRepository.findByEmail(request.getEmail())
-                            .map(d -> (Object) d)
-                            .orElseGet(() -> adminRepository.findByEmail(request.getEmail())
-                                    .orElseThrow(() -> new RuntimeException("User not found"))));
+            ));
+            Object user = ((AccountDetails) authentication.getPrincipal()).getAccount();
 
             // Determine role and email
             Role role;
@@ -212,6 +233,9 @@ public class AuthController {
         } catch (DisabledException e) {
             System.out.println("❌ Account disabled for: " + request.getEmail());
             return ResponseEntity.status(401).body("Account disabled");
+        } catch (TaskRejectedException | TimeoutException e) {
+            System.out.println("⚠️ Login queue full, turning away: " + request.getEmail());
+            return ResponseEntity.status(503).body("Too many logins in progress, please try again shortly");
         } catch (Exception e) {
             System.out.println("❌ Authentication failed: " + e.getMessage());
             return ResponseEntity.status(500).body("Authentication failed: " + e.getMessage());
@@ -219,9 +243,17 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<String> logout() {
-        // Note: With JWT, logout is typically handled client-side by removing the token
-        // You could implement token blacklisting here if needed
+    public ResponseEntity<String> logout(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        // The token is revoked until it would have expired; a missing or already invalid token
+        // has nothing left to revoke, so logout still succeeds
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            String token = authHeader.substring(7);
+            try {
+                tokenRevocationService.revoke(token, jwtUtil.verify(token));
+            } catch (JwtException | IllegalArgumentException e) {
+                // expired or malformed
+            }
+        }
         return ResponseEntity.ok("Logged out successfully");
     }
 
@@ -232,12 +264,7 @@ public class AuthController {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             String email = auth.getName();
             
-            Object user = patientRepository.findByEmail(email)
-                    .map(p -> (Object) p)
-                    .orElseGet(() -> doctorRepository.findByEmail(email)
-                            .map(d -> (Object) d)
-                            .orElseGet(() -> adminRepository.findByEmail(email)
-                                    .orElse(null)));
+            Object user = userDirectory.findUser(email);
 
             if (user == null) {
                 return ResponseEntity.status(404).body("User not found");
@@ -278,6 +305,22 @@ public class AuthController {
         }
     }
 
+    // Runs BCrypt work on the bounded hashing pool and waits for it, rethrowing what it threw
+    private <T> T hashing(Callable<T> work) throws Exception {
+        Future<T> future = passwordHashingExecutor.submit(work);
+        try {
+            return future.get(hashingTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        } catch (TimeoutException | InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        }
+    }
+
     @GetMapping("/test")
 public ResponseEntity<String> test() {
     return ResponseEntity.ok("AuthController is working!");
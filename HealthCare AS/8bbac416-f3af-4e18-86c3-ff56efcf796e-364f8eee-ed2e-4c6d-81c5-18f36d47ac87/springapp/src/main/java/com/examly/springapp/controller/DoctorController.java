@@ -1,19 +1,31 @@
 package com.examly.springapp.controller;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import com.examly.springapp.dto.AvailableSlot;
+import com.examly.springapp.dto.DoctorFreeSlots;
+import com.examly.springapp.dto.DoctorSummary;
 import com.examly.springapp.model.Appointment;
 import com.examly.springapp.model.Doctor;
 import com.examly.springapp.model.Doctor.ProfileStatus;
 import com.examly.springapp.model.DoctorAvailability;
 import com.examly.springapp.service.AppointmentService;
+import com.examly.springapp.service.AvailabilityService;
+import com.examly.springapp.service.DoctorCache;
+import com.examly.springapp.service.DoctorCatalog;
+import com.examly.springapp.service.DoctorSearchIndex;
 import com.examly.springapp.service.DoctorService;
 import com.examly.springapp.service.DoctorService.*;
 
@@ -28,6 +40,18 @@ public class DoctorController {
     
     @Autowired
     private AppointmentService appointmentService;
+    
+    @Autowired
+    private AvailabilityService availabilityService;
+    
+    @Autowired
+    private DoctorSearchIndex doctorSearchIndex;
+    
+    @Autowired
+    private DoctorCatalog doctorCatalog;
+    
+    @Autowired
+    private DoctorCache doctorCache;
 
     // =============================================================================
     // FR2: Admin Features for Doctor Profile Management
@@ -82,22 +106,34 @@ public class DoctorController {
     }
 
     /**
-     * Admin gets all doctor profiles with filtering
+     * Admin gets all doctor profiles with filtering. Passing page or size returns one page
+     * (with the total count) instead of the whole list; sort is "field" or "field,desc".
      */
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/profiles")
-    public ResponseEntity<List<Doctor>> getAllDoctorProfiles(
+    public ResponseEntity<?> getAllDoctorProfiles(
             @RequestParam(required = false) String specialization,
             @RequestParam(required = false) ProfileStatus status,
-            @RequestParam(required = false) String clinicName) {
+            @RequestParam(required = false) String clinicName,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort) {
         try {
             DoctorFilterRequest filter = new DoctorFilterRequest();
             filter.setSpecialization(specialization);
             filter.setStatus(status);
             filter.setClinicName(clinicName);
+            filter.setPage(page);
+            filter.setSize(size);
+            filter.setSort(sort);
             
+            if (filter.isPaged()) {
+                return ResponseEntity.ok(doctorService.getDoctorProfilesPage(filter));
+            }
             List<Doctor> doctorList = doctorService.getAllDoctorProfiles(filter);
             return ResponseEntity.ok(doctorList);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -150,10 +186,9 @@ public class DoctorController {
      */
     @PreAuthorize("hasAnyRole('PATIENT', 'DOCTOR', 'ADMIN')")
     @GetMapping("/{id}/profile")
-    public ResponseEntity<Doctor> getDoctorProfile(@PathVariable Long id) {
+    public ResponseEntity<Doctor> getDoctorProfile(@PathVariable Long id, WebRequest webRequest) {
         try {
-            Doctor doctor = doctorService.getDoctorById(id);
-            return doctor != null ? ResponseEntity.ok(doctor) : ResponseEntity.notFound().build();
+            return conditionalDoctor(id, webRequest);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -192,12 +227,20 @@ public class DoctorController {
 
     @PreAuthorize("hasAnyRole('PATIENT', 'ADMIN')")
     @GetMapping
-    public ResponseEntity<List<Doctor>> getAllDoctors() {
+    public ResponseEntity<List<Doctor>> getAllDoctors(WebRequest webRequest) {
         try {
+            String etag = doctorService.getDoctorsEtag();
+            if (webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
             System.out.println("🔍 Loading all doctors...");
             List<Doctor> doctorList = doctorService.getAllDoctors();
+            // The cache is invalidated after commit, so it can briefly lag the fingerprint just read
+            if (!etag.equals(doctorService.getDoctorsEtag(doctorList))) {
+                doctorList = doctorService.getAllDoctorsUncached();
+            }
             System.out.println("✅ Found " + doctorList.size() + " doctors");
-            return new ResponseEntity<>(doctorList, HttpStatus.OK);
+            return ResponseEntity.ok().eTag(doctorService.getDoctorsEtag(doctorList)).body(doctorList);
         } catch (Exception e) {
             System.err.println("❌ Error loading doctors: " + e.getMessage());
             e.printStackTrace();
@@ -207,10 +250,9 @@ public class DoctorController {
 
     @PreAuthorize("hasAnyRole('PATIENT', 'DOCTOR', 'ADMIN')")
     @GetMapping("/{id}")
-    public ResponseEntity<Doctor> getDoctorById(@PathVariable Long id) {
+    public ResponseEntity<Doctor> getDoctorById(@PathVariable Long id, WebRequest webRequest) {
         try {
-            Doctor doctor = doctorService.getDoctorById(id);
-            return doctor != null ? ResponseEntity.ok(doctor) : ResponseEntity.notFound().build();
+            return conditionalDoctor(id, webRequest);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -261,15 +303,80 @@ public class DoctorController {
 
     @PreAuthorize("hasAnyRole('PATIENT', 'DOCTOR', 'ADMIN')")
     @GetMapping("/{id}/availability")
-    public ResponseEntity<List<DoctorAvailability>> getDoctorAvailability(@PathVariable Long id) {
+    public ResponseEntity<List<DoctorAvailability>> getDoctorAvailability(@PathVariable Long id, WebRequest webRequest) {
         try {
+            String etag = doctorService.getAvailabilityEtag(id);
+            if (webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
             List<DoctorAvailability> availability = doctorService.getDoctorAvailability(id);
-            return ResponseEntity.ok(availability);
+            return ResponseEntity.ok().eTag(etag).body(availability);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * Earliest free slots for a doctor, so patients do not have to guess times
+     */
+    @PreAuthorize("hasAnyRole('PATIENT', 'DOCTOR', 'ADMIN')")
+    @GetMapping("/{id}/next-available")
+    public ResponseEntity<?> getNextAvailableSlots(@PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(defaultValue = "14") int days,
+            @RequestParam(defaultValue = "5") int limit) {
+        try {
+            List<AvailableSlot> slots = availabilityService.findNextAvailable(id, from, days, limit);
+            return ResponseEntity.ok(slots);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Failed to find available slots: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Doctors with free slots matching specialization, clinic, date range and time of day,
+     * ranked by earliest availability
+     */
+    @PreAuthorize("hasAnyRole('PATIENT', 'DOCTOR', 'ADMIN')")
+    @GetMapping("/free-slots")
+    public ResponseEntity<?> searchFreeSlots(
+            @RequestParam(required = false) String specialization,
+            @RequestParam(required = false) String clinicName,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime endTime,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "3") int slotsPerDoctor) {
+        try {
+            List<DoctorFreeSlots> results = availabilityService.searchFreeSlots(
+                    specialization, clinicName, from, to, startTime, endTime, limit, slotsPerDoctor);
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Failed to search free slots: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Search box autocomplete over active doctors: every word is a prefix match, longer words
+     * tolerate typos. Served from the in-memory search index.
+     */
+    @PreAuthorize("hasAnyRole('PATIENT', 'DOCTOR', 'ADMIN')")
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggestDoctors(@RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<DoctorSummary> suggestions = doctorSearchIndex.suggest(query, limit);
+            return ResponseEntity.ok(suggestions);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PreAuthorize("hasAnyRole('PATIENT', 'ADMIN')")
     @GetMapping("/specialization/{specialization}")
     public ResponseEntity<List<Doctor>> getDoctorsBySpecialization(@PathVariable String specialization) {
@@ -292,6 +399,24 @@ public class DoctorController {
         }
     }
 
+    /**
+     * Specializations and clinics of active doctors with a doctor count each, for the booking page
+     */
+    @PreAuthorize("hasAnyRole('PATIENT', 'DOCTOR', 'ADMIN')")
+    @GetMapping("/catalog")
+    public ResponseEntity<DoctorCatalog.Snapshot> getCatalog() {
+        return ResponseEntity.ok(doctorCatalog.getSnapshot());
+    }
+
+    /**
+     * Hit rate, evictions and size of the doctor lookup cache
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/cache/stats")
+    public ResponseEntity<DoctorCache.Stats> getCacheStats() {
+        return ResponseEntity.ok(doctorCache.getStats());
+    }
+
     @PreAuthorize("hasRole('DOCTOR')")
     @GetMapping("/me")
     public ResponseEntity<Doctor> getMyBasicProfile(Authentication authentication) {
@@ -365,4 +490,27 @@ public class DoctorController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
         }
     }
+
+    /**
+     * Answers from the version column alone when the client's ETag still matches, so an
+     * unchanged doctor costs one scalar query and no entity load. Otherwise the body comes from
+     * the cache, unless the cache has not yet caught up with the version just read, and the ETag
+     * always describes the body that is sent.
+     */
+    private ResponseEntity<Doctor> conditionalDoctor(Long id, WebRequest webRequest) {
+        String etag = doctorService.getDoctorEtag(id);
+        if (etag == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        Doctor doctor = doctorService.getDoctorById(id);
+        if (doctor != null && !etag.equals(doctorService.getDoctorEtag(doctor))) {
+            doctor = doctorService.getDoctorByIdUncached(id);
+        }
+        return doctor != null
+                ? ResponseEntity.ok().eTag(doctorService.getDoctorEtag(doctor)).body(doctor)
+                : ResponseEntity.notFound().build();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,151 @@
+package com.examly.springapp.controller;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.examly.springapp.model.WaitlistEntry;
+import com.examly.springapp.service.PatientService;
+import com.examly.springapp.service.WaitlistService;
+
+@RestController
+@RequestMapping("/api/waitlist")
+public class WaitlistController {
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private PatientService patientService;
+
+    // Join the waitlist for a doctor within a date window
+    @PreAuthorize("hasAnyRole('PATIENT', 'ADMIN')")
+    @PostMapping
+    public ResponseEntity<?> joinWaitlist(@RequestBody Map<String, Object> body, Authentication authentication) {
+        try {
+            boolean isAdmin = isAdmin(authentication);
+            Long patientId;
+            if (isAdmin) {
+                if (body.get("patientId") == null) {
+                    return ResponseEntity.status(400).body(Map.of("error", "Patient ID is required for admin users"));
+                }
+                patientId = Long.parseLong(body.get("patientId").toString());
+            } else {
+                try {
+                    patientId = patientService.getPatientIdByEmail(authentication.getName());
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.status(403).body(Map.of("error", "Access Denied: Patient not found with email: " + authentication.getName()));
+                }
+            }
+
+            if (body.get("doctorId") == null || body.get("fromDate") == null || body.get("toDate") == null) {
+                return ResponseEntity.status(400).body(Map.of("error", "Doctor ID, fromDate and toDate are required"));
+            }
+            Long doctorId = Long.parseLong(body.get("doctorId").toString());
+            LocalDate fromDate = LocalDate.parse(body.get("fromDate").toString());
+            LocalDate toDate = LocalDate.parse(body.get("toDate").toString());
+            String reason = body.get("reason") != null ? body.get("reason").toString() : null;
+
+            WaitlistEntry entry = waitlistService.join(patientId, doctorId, fromDate, toDate, reason);
+            return ResponseEntity.status(201).body(entry);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return ResponseEntity.status(400).body(Map.of("error", "Invalid id or date format"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("Error joining waitlist: " + e.getMessage());
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to join waitlist"));
+        }
+    }
+
+    // Waitlist entries of the logged-in patient, newest first
+    @PreAuthorize("hasRole('PATIENT')")
+    @GetMapping("/my")
+    public ResponseEntity<?> getMyEntries(Authentication authentication) {
+        try {
+            Long patientId = patientService.getPatientIdByEmail(authentication.getName());
+            List<WaitlistEntry> entries = waitlistService.getEntriesForPatient(patientId);
+            return ResponseEntity.ok(entries);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Leave the waitlist
+    @PreAuthorize("hasAnyRole('PATIENT', 'ADMIN')")
+    @DeleteMapping("/{id}")
+    public ResponseEntity<String> leaveWaitlist(@PathVariable Long id, Authentication authentication) {
+        boolean isAdmin = isAdmin(authentication);
+        Long patientId = null;
+        if (!isAdmin) {
+            try {
+                patientId = patientService.getPatientIdByEmail(authentication.getName());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(403).body("Access Denied: Patient not found");
+            }
+        }
+
+        return toResponse(waitlistService.leave(id, patientId, isAdmin));
+    }
+
+    // Book the slot currently offered to this entry
+    @PreAuthorize("hasAnyRole('PATIENT', 'ADMIN')")
+    @PostMapping("/{id}/accept")
+    public ResponseEntity<String> acceptOffer(@PathVariable Long id, Authentication authentication) {
+        boolean isAdmin = isAdmin(authentication);
+        Long patientId = null;
+        if (!isAdmin) {
+            try {
+                patientId = patientService.getPatientIdByEmail(authentication.getName());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(403).body("Access Denied: Patient not found");
+            }
+        }
+        return toResponse(waitlistService.acceptOffer(id, patientId, isAdmin));
+    }
+
+    // Pass the offered slot on and keep waiting
+    @PreAuthorize("hasAnyRole('PATIENT', 'ADMIN')")
+    @PostMapping("/{id}/decline")
+    public ResponseEntity<String> declineOffer(@PathVariable Long id, Authentication authentication) {
+        boolean isAdmin = isAdmin(authentication);
+        Long patientId = null;
+        if (!isAdmin) {
+            try {
+                patientId = patientService.getPatientIdByEmail(authentication.getName());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(403).body("Access Denied: Patient not found");
+            }
+        }
+        return toResponse(waitlistService.declineOffer(id, patientId, isAdmin));
+    }
+
+    private static ResponseEntity<String> toResponse(String result) {
+        if (result.contains("not found")) {
+            return ResponseEntity.status(404).body(result);
+        } else if (result.contains("your own")) {
+            return ResponseEntity.status(403).body(result);
+        } else if (!result.contains("successfully")) {
+            return ResponseEntity.status(409).body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+    }
+}
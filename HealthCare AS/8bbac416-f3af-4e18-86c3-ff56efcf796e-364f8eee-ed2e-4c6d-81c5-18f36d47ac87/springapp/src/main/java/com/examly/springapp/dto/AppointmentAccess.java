@@ -0,0 +1,18 @@
+package com.examly.springapp.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import com.examly.springapp.model.AppointmentStatus;
+
+// What a status transition needs to know about an appointment, without loading Patient or Doctor
+public record AppointmentAccess(
+        Long id,
+        AppointmentStatus status,
+        Long doctorId,
+        String doctorEmail,
+        String patientEmail,
+        LocalDate appointmentDate,
+        LocalTime appointmentTime
+) {
+}
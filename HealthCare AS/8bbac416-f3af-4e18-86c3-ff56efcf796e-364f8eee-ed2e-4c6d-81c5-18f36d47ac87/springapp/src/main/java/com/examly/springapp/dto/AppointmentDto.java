@@ -1,27 +1,54 @@
 package com.examly.springapp.dto;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 import com.examly.springapp.model.Appointment;
 import com.examly.springapp.model.AppointmentStatus;
 
+/**
+ * Flat read model for appointment lists. Carries only what the list screens show, but keeps the nested
+ * {@code patient} / {@code doctor} JSON shape so clients reading {@code appointment.doctor.name} keep working.
+ */
 public record AppointmentDto(
         Long id,
-        Long patientId,
-        Long doctorId,
         LocalDate appointmentDate,
         LocalTime appointmentTime,
-        AppointmentStatus status
+        String reason,
+        AppointmentStatus status,
+        LocalDateTime createdAt,
+        PatientRef patient,
+        DoctorRef doctor
 ) {
+
+    // Used by JPQL constructor expressions, which cannot build the nested records themselves
+    public AppointmentDto(Long id, LocalDate appointmentDate, LocalTime appointmentTime, String reason,
+                          AppointmentStatus status, LocalDateTime createdAt,
+                          Long patientId, String patientName, Long doctorId, String doctorName, String doctorSpecialization) {
+        this(id, appointmentDate, appointmentTime, reason, status, createdAt,
+                new PatientRef(patientId, patientName), new DoctorRef(doctorId, doctorName, doctorSpecialization));
+    }
+
     public static AppointmentDto from(Appointment a) {
         return new AppointmentDto(
                 a.getId(),
-                a.getPatient().getId(),
-                a.getDoctor().getId(),
                 a.getAppointmentDate(),
                 a.getAppointmentTime(),
-                a.getStatus()
+                a.getReason(),
+                a.getStatus(),
+                a.getCreatedAt(),
+                a.getPatient().getId(),
+                a.getPatient().getName(),
+                a.getDoctor().getId(),
+                a.getDoctor().getName(),
+                a.getDoctor().getSpecialization()
         );
     }
+
+    public record PatientRef(Long id, String name) {
+    }
+
+    public record DoctorRef(Long id, String name, String specialization) {
+    }
 }
@@ -0,0 +1,29 @@
+package com.examly.springapp.dto;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.examly.springapp.model.AppointmentStatus;
+
+/**
+ * Paging and filter parameters shared by the appointment list endpoints. A request is paged as soon
+ * as it carries a cursor or a size; without either the endpoints keep returning the full list.
+ */
+public record AppointmentPageQuery(
+        String cursor,
+        Integer size,
+        AppointmentStatus status,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        String sort
+) {
+
+    public boolean isPaged() {
+        return cursor != null || size != null;
+    }
+
+    public boolean isDescending() {
+        return "desc".equalsIgnoreCase(sort);
+    }
+}
@@ -0,0 +1,18 @@
+package com.examly.springapp.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Appointment counts for the admin dashboard over [from, to]; computedAt tells how fresh a cached answer is
+public record AppointmentStats(
+        LocalDate from,
+        LocalDate to,
+        long total,
+        List<StatusCount> byStatus,
+        List<DoctorCount> byDoctor,
+        List<DayCount> byDay,
+        List<SpecializationCount> bySpecialization,
+        LocalDateTime computedAt
+) {
+}
@@ -0,0 +1,7 @@
+package com.examly.springapp.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public record AvailableSlot(LocalDate date, LocalTime time) {
+}
@@ -0,0 +1,28 @@
+package com.examly.springapp.dto;
+
+public record BookingResult(int index, Outcome outcome, Long appointmentId, String message) {
+
+    public enum Outcome {
+        BOOKED,
+        CONFLICT,
+        INVALID,
+        // Valid and free, but not booked because the all-or-nothing request failed elsewhere
+        SKIPPED
+    }
+
+    public static BookingResult booked(int index, Long appointmentId) {
+        return new BookingResult(index, Outcome.BOOKED, appointmentId, "Appointment booked successfully");
+    }
+
+    public static BookingResult conflict(int index, String message) {
+        return new BookingResult(index, Outcome.CONFLICT, null, message);
+    }
+
+    public static BookingResult invalid(int index, String message) {
+        return new BookingResult(index, Outcome.INVALID, null, message);
+    }
+
+    public static BookingResult skipped(int index) {
+        return new BookingResult(index, Outcome.SKIPPED, null, "Not booked because other bookings in the request failed");
+    }
+}
@@ -0,0 +1,7 @@
+package com.examly.springapp.dto;
+
+import java.util.List;
+
+// nextCursor is null on the last page
+public record CursorPage<T>(List<T> items, String nextCursor) {
+}
@@ -0,0 +1,6 @@
+package com.examly.springapp.dto;
+
+import java.time.LocalDate;
+
+public record DayCount(LocalDate date, Long count) {
+}
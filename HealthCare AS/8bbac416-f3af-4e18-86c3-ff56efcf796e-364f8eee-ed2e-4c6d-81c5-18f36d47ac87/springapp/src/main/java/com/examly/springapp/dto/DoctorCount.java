@@ -0,0 +1,4 @@
+package com.examly.springapp.dto;
+
+public record DoctorCount(Long doctorId, String doctorName, String specialization, Long count) {
+}
@@ -0,0 +1,6 @@
+package com.examly.springapp.dto;
+
+import java.util.List;
+
+public record DoctorFreeSlots(DoctorSummary doctor, List<AvailableSlot> slots) {
+}
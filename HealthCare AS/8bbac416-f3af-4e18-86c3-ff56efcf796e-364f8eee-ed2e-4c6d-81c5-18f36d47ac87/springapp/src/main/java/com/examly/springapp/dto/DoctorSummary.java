@@ -0,0 +1,4 @@
+package com.examly.springapp.dto;
+
+public record DoctorSummary(Long id, String name, String specialization, String clinicName) {
+}
@@ -0,0 +1,7 @@
+package com.examly.springapp.dto;
+
+import java.util.List;
+
+// page is zero-based; totalItems counts every row matching the filters
+public record OffsetPage<T>(List<T> items, int page, int size, long totalItems) {
+}
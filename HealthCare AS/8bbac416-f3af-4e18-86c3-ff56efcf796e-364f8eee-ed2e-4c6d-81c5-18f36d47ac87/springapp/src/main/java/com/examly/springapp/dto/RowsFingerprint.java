@@ -0,0 +1,18 @@
+package com.examly.springapp.dto;
+
+/**
+ * Aggregate of a set of versioned rows, read with one scalar query. Any insert, delete or
+ * versioned update of a row in the set changes at least one component, so it can serve as a
+ * strong ETag for the list without loading the rows.
+ */
+public record RowsFingerprint(Long rows, Long maxId, Long idSum, Long versionSum) {
+
+    public String toEtag(String prefix) {
+        return prefix + "-" + orZero(rows) + "-" + orZero(maxId) + "-" + orZero(idSum) + "-" + orZero(versionSum);
+    }
+
+    // MAX and SUM are NULL over an empty set
+    private static long orZero(Long value) {
+        return value != null ? value : 0L;
+    }
+}
@@ -0,0 +1,19 @@
+package com.examly.springapp.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A recurring booking, e.g. rule {@code FREQ=WEEKLY;COUNT=6}. With {@code allOrNothing} a single
+ * conflicting occurrence cancels the whole series.
+ */
+public record SeriesRequest(
+        Long patientId,
+        Long doctorId,
+        LocalDate startDate,
+        LocalTime appointmentTime,
+        String rule,
+        String reason,
+        boolean allOrNothing
+) {
+}
@@ -0,0 +1,10 @@
+package com.examly.springapp.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record SeriesResult(String seriesId, int booked, List<Occurrence> occurrences) {
+
+    public record Occurrence(LocalDate date, BookingResult.Outcome outcome, Long appointmentId, String message) {
+    }
+}
@@ -0,0 +1,4 @@
+package com.examly.springapp.dto;
+
+public record SpecializationCount(String specialization, Long count) {
+}
@@ -0,0 +1,6 @@
+package com.examly.springapp.dto;
+
+import com.examly.springapp.model.AppointmentStatus;
+
+public record StatusCount(AppointmentStatus status, Long count) {
+}
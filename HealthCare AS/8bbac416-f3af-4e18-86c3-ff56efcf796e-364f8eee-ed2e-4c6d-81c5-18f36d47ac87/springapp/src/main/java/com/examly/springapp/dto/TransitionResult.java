@@ -0,0 +1,27 @@
+package com.examly.springapp.dto;
+
+public record TransitionResult(Long appointmentId, Outcome outcome, String message) {
+
+    public enum Outcome {
+        APPLIED,
+        NOT_FOUND,
+        FORBIDDEN,
+        INVALID_STATE
+    }
+
+    public static TransitionResult applied(Long appointmentId, String message) {
+        return new TransitionResult(appointmentId, Outcome.APPLIED, message);
+    }
+
+    public static TransitionResult notFound(Long appointmentId) {
+        return new TransitionResult(appointmentId, Outcome.NOT_FOUND, "Appointment not found");
+    }
+
+    public static TransitionResult forbidden(Long appointmentId, String message) {
+        return new TransitionResult(appointmentId, Outcome.FORBIDDEN, message);
+    }
+
+    public static TransitionResult invalidState(Long appointmentId, String message) {
+        return new TransitionResult(appointmentId, Outcome.INVALID_STATE, message);
+    }
+}
@@ -3,41 +3,75 @@ package com.examly.springapp.model;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.Builder;
+import lombok.ToString;
 
 @Entity
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder(builderClassName = "AppointmentBuilder")
-@Table(name = "appointment")
+@NamedEntityGraph(name = Appointment.WITH_PARTIES, attributeNodes = {
+    @NamedAttributeNode("patient"),
+    @NamedAttributeNode("doctor")
+})
+@Table(name = "appointment", indexes = {
+    // Keyset pagination orders and seeks on (appointment_date, appointment_time, id)
+    @Index(name = "idx_appointment_date_time_id", columnList = "appointment_date, appointment_time, id"),
+    @Index(name = "idx_appointment_doctor_date_time", columnList = "doctor_id, appointment_date, appointment_time, id"),
+    @Index(name = "idx_appointment_patient_date_time", columnList = "patient_id, appointment_date, appointment_time, id")
+})
 public class Appointment {
 
+    // Fetch plan for reads that hand appointments to callers together with patient and doctor
+    public static final String WITH_PARTIES = "Appointment.withParties";
+
+    // IDENTITY forces one INSERT per row; a pooled sequence lets Hibernate batch inserts
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointment_seq")
+    @SequenceGenerator(name = "appointment_seq", sequenceName = "appointment_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
-    // Patient books appointment
-    @ManyToOne
+    // Patient books appointment. Lazy: queries that need it say so with the WITH_PARTIES graph.
+    // Left out of equals/hashCode/toString so those never trigger a load.
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Patient patient;
 
     // Doctor is assigned to the appointment
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "doctor_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Doctor doctor;
 
     private LocalDate appointmentDate;
@@ -49,4 +83,32 @@ public class Appointment {
     private AppointmentStatus status = AppointmentStatus.PENDING;
 
     private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Shared by all appointments booked together as one recurring series
+    @Column(name = "series_id", length = 36)
+    private String seriesId;
+
+    // Filled only while the appointment holds its slot. MySQL has no partial indexes, but a unique
+    // index ignores NULLs, so cancelled/rejected rows can share a slot with one active booking.
+    @JsonIgnore
+    @Column(name = "active_slot", unique = true, length = 64)
+    private String activeSlot;
+
+    // Written by every status UPDATE with a fresh random value, so a bulk transition can tell the rows it
+    // changed from rows another request changed in the meantime
+    @JsonIgnore
+    @Column(name = "transition_stamp", length = 36)
+    private String transitionStamp;
+
+    @PrePersist
+    @PreUpdate
+    void syncActiveSlot() {
+        boolean holdsSlot = status != null && status.holdsSlot()
+                && doctor != null && appointmentDate != null && appointmentTime != null;
+        activeSlot = holdsSlot ? slotKey(doctor.getId(), appointmentDate, appointmentTime) : null;
+    }
+
+    public static String slotKey(Long doctorId, LocalDate date, LocalTime time) {
+        return doctorId + "@" + date + "T" + time.truncatedTo(ChronoUnit.MINUTES);
+    }
 }
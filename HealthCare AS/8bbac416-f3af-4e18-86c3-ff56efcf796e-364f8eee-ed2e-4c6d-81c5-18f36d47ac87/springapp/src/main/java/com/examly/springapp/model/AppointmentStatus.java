@@ -1,5 +1,7 @@
 package com.examly.springapp.model;
 
+import java.util.List;
+
 public enum AppointmentStatus {
     SCHEDULED,    // Initial status when booked (pending doctor approval)
     PENDING,      // Alternative to SCHEDULED
@@ -7,5 +9,12 @@ public enum AppointmentStatus {
     COMPLETED,    // Consultation completed
     CANCELLED,     // Rejected by doctor or cancelled
     APPROVED,
-    REJECTED
-}
\ No newline at end of file
+    REJECTED;
+
+    // Statuses that give the doctor's time slot back
+    public static final List<AppointmentStatus> RELEASED = List.of(CANCELLED, REJECTED);
+
+    public boolean holdsSlot() {
+        return !RELEASED.contains(this);
+    }
+}
@@ -0,0 +1,83 @@
+package com.examly.springapp.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The status changes doctors, patients and admins can make, with the states each one is allowed
+ * from. This is the single source for the guards of the conditional status UPDATE.
+ */
+public enum AppointmentTransition {
+    APPROVE("approve", "approved", AppointmentStatus.CONFIRMED, false,
+            EnumSet.of(AppointmentStatus.SCHEDULED, AppointmentStatus.PENDING),
+            "You can only approve your own appointments",
+            "Only scheduled/pending appointments can be approved"),
+    CONFIRM("confirm", "confirmed", AppointmentStatus.CONFIRMED, false,
+            EnumSet.of(AppointmentStatus.PENDING, AppointmentStatus.SCHEDULED),
+            "You can only confirm your own appointments",
+            "Only pending/scheduled appointments can be confirmed"),
+    REJECT("reject", "rejected", AppointmentStatus.CANCELLED, false,
+            EnumSet.of(AppointmentStatus.SCHEDULED, AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED, AppointmentStatus.APPROVED),
+            "You can only reject your own appointments",
+            "Cannot reject a completed appointment"),
+    CANCEL("cancel", "cancelled", AppointmentStatus.CANCELLED, true,
+            EnumSet.of(AppointmentStatus.SCHEDULED, AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED, AppointmentStatus.APPROVED),
+            "You don't have permission to cancel this appointment",
+            "Cannot cancel a completed appointment"),
+    COMPLETE("complete", "completed", AppointmentStatus.COMPLETED, false,
+            EnumSet.of(AppointmentStatus.CONFIRMED),
+            "You can only complete your own appointments",
+            "Only confirmed appointments can be completed");
+
+    private final String verb;
+    private final String pastTense;
+    private final AppointmentStatus target;
+    // Doctors (and admins) may always act on their appointments; patients only where this is set
+    private final boolean patientAllowed;
+    private final Set<AppointmentStatus> from;
+    private final String forbiddenMessage;
+    private final String invalidStateMessage;
+
+    AppointmentTransition(String verb, String pastTense, AppointmentStatus target, boolean patientAllowed,
+                          Set<AppointmentStatus> from, String forbiddenMessage, String invalidStateMessage) {
+        this.verb = verb;
+        this.pastTense = pastTense;
+        this.target = target;
+        this.patientAllowed = patientAllowed;
+        this.from = from;
+        this.forbiddenMessage = forbiddenMessage;
+        this.invalidStateMessage = invalidStateMessage;
+    }
+
+    public String getVerb() {
+        return verb;
+    }
+
+    public String getPastTense() {
+        return pastTense;
+    }
+
+    public AppointmentStatus getTarget() {
+        return target;
+    }
+
+    public boolean isPatientAllowed() {
+        return patientAllowed;
+    }
+
+    public Set<AppointmentStatus> getFrom() {
+        return from;
+    }
+
+    public String getForbiddenMessage() {
+        return forbiddenMessage;
+    }
+
+    public String getInvalidStateMessage() {
+        return invalidStateMessage;
+    }
+
+    public boolean releasesSlot() {
+        return !target.holdsSlot();
+    }
+}
@@ -1,5 +1,6 @@
 package com.examly.springapp.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
@@ -15,13 +16,24 @@ import lombok.Builder;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
+// Appointments reference this lazily; never serialize the proxy internals
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Table(indexes = {
+    // Admin profile search filters on status and pages in name order
+    @Index(name = "idx_doctor_status_name", columnList = "status, name, id")
+})
 public class Doctor {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    // Bumped on every update; backs the ETags of the doctor endpoints. Primitive so that Spring Data
+    // still decides new vs. existing by id, and rows that predate the column start at 0.
+    @Version
+    private long version;
+    
     @NotBlank(message = "Name is required")
     @Size(min = 3, max = 50, message = "Name must be 3-50 characters")
     private String name;
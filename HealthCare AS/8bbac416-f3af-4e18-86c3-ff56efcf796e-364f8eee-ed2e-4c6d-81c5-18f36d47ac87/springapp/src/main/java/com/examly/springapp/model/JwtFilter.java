@@ -1,5 +1,6 @@
 package com.examly.springapp.model;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -9,16 +10,20 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.examly.springapp.service.TokenRevocationService;
+
 import java.io.IOException;
 import java.util.Collections;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationService tokenRevocationService;
 
-    public JwtFilter(JwtUtil jwtUtil) {
-        this.jwtUtil = jwtUtil;
+    public JwtFilter(VerifiedTokenCache verifiedTokenCache, TokenRevocationService tokenRevocationService) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @Override
@@ -39,43 +44,49 @@ public class JwtFilter extends OncePerRequestFilter {
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String jwt = authHeader.substring(7);
+            JwtPrincipal principal;
             try {
-                if (jwtUtil.isTokenValid(jwt)) {
-                    String username = jwtUtil.extractUsername(jwt);
-                    String roleClaim = jwtUtil.extractClaim(jwt, "role");
-
-                    if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                        if (roleClaim == null || roleClaim.trim().isEmpty()) {
-                            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
-                            response.setContentType("application/json");
-                            response.getWriter().write("{\"error\":\"No role found in token\",\"status\":403}");
-                            return;
-                        }
-
-                        // ✅ Role already stored with ROLE_ → don’t re-add prefix
-                        String authority = roleClaim;
-
-                        UsernamePasswordAuthenticationToken authToken =
-                                new UsernamePasswordAuthenticationToken(
-                                        username,
-                                        null,
-                                        Collections.singletonList(new SimpleGrantedAuthority(authority))
-                                );
-
-                        SecurityContextHolder.getContext().setAuthentication(authToken);
-                    }
-                } else {
-                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                    response.setContentType("application/json");
-                    response.getWriter().write("{\"error\":\"Invalid or expired token\",\"status\":401}");
-                    return;
-                }
+                // One parse checks signature and expiry and yields subject and role; repeat
+                // presentations of the same token are answered from the cache
+                principal = verifiedTokenCache.verify(jwt);
+            } catch (JwtException | IllegalArgumentException e) {
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                response.setContentType("application/json");
+                response.getWriter().write("{\"error\":\"Invalid or expired token\",\"status\":401}");
+                return;
             } catch (Exception e) {
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.setContentType("application/json");
                 response.getWriter().write("{\"error\":\"Invalid JWT token\",\"status\":401}");
                 return;
             }
+
+            // One in-memory map lookup by jti; the database is never read per request
+            if (tokenRevocationService.isRevoked(principal.tokenId())) {
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                response.setContentType("application/json");
+                response.getWriter().write("{\"error\":\"Token has been revoked\",\"status\":401}");
+                return;
+            }
+
+            if (principal.subject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                if (principal.role() == null || principal.role().trim().isEmpty()) {
+                    response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+                    response.setContentType("application/json");
+                    response.getWriter().write("{\"error\":\"No role found in token\",\"status\":403}");
+                    return;
+                }
+
+                // ✅ Role already stored with ROLE_ → don’t re-add prefix
+                UsernamePasswordAuthenticationToken authToken =
+                        new UsernamePasswordAuthenticationToken(
+                                principal,
+                                null,
+                                Collections.singletonList(new SimpleGrantedAuthority(principal.role()))
+                        );
+
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            }
         } else {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType("application/json");
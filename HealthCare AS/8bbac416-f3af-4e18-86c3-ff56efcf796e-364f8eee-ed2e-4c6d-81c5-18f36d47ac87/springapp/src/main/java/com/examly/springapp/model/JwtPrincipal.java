@@ -0,0 +1,17 @@
+package com.examly.springapp.model;
+
+import java.security.Principal;
+import java.time.Instant;
+
+/**
+ * What a verified token says about its caller. Set as the principal of the request's
+ * Authentication; being a {@link Principal}, {@code authentication.getName()} still returns the
+ * email. {@code tokenId} is the jti used for revocation; tokens issued before it existed have none.
+ */
+public record JwtPrincipal(String subject, String role, String tokenId, Instant expiresAt) implements Principal {
+
+    @Override
+    public String getName() {
+        return subject;
+    }
+}
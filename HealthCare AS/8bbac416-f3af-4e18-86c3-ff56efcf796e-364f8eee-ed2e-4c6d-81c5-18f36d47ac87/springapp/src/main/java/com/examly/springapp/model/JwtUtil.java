@@ -7,6 +7,7 @@ import org.springframework.stereotype.Component;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 import java.security.Key;
 
@@ -16,14 +17,31 @@ public class JwtUtil {
     private final String SECRET_KEY = "MySuperSecretKeyForJWTGeneration12345";
     private final long EXPIRATION_TIME = 1000 * 60 * 60; // 1 hour
 
+    // Both are immutable and thread-safe, so they are built once instead of per parse
+    private final Key signingKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+
     private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        return signingKey;
+    }
+
+    /**
+     * Verifies signature and expiry in a single parse and returns the caller. Throws
+     * {@link JwtException} (including {@link ExpiredJwtException}) or IllegalArgumentException for
+     * tokens that must be rejected.
+     */
+    public JwtPrincipal verify(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Date expiration = claims.getExpiration();
+        return new JwtPrincipal(claims.getSubject(), claims.get("role", String.class), claims.getId(),
+                expiration != null ? expiration.toInstant() : null);
     }
 
     // Generate token without role (basic use)
     public String generateToken(String username) {
         return Jwts.builder()
                 .setSubject(username)
+                .setId(UUID.randomUUID().toString()) // jti, so the token can be revoked on logout
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
@@ -38,6 +56,7 @@ public class JwtUtil {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(email)
+                .setId(UUID.randomUUID().toString()) // jti, so the token can be revoked on logout
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
@@ -62,11 +81,7 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     private boolean isTokenExpired(String token) {
@@ -0,0 +1,36 @@
+package com.examly.springapp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Which patient, doctor or admin row an email belongs to, keyed by the normalized email
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "user_identity", indexes = {
+    @Index(name = "idx_user_identity_role_entity", columnList = "role, entity_id")
+})
+public class UserIdentity {
+
+    @Id
+    @Column(length = 191)
+    private String email;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Role role;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+}
@@ -0,0 +1,112 @@
+package com.examly.springapp.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tokens that already passed signature verification, keyed by their SHA-256 digest so raw
+ * bearer tokens are never held. A hit only happens for the exact same token string, so it can skip
+ * the HMAC check; it is still rejected once the token's own expiry has passed.
+ *
+ * Bounded by {@code security.jwt.cache.max-entries}. When full, expired entries are purged first
+ * and then an arbitrary tenth of the rest is dropped; an evicted token simply gets verified again.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    public static final int MAX_ENTRIES_LIMIT = 1_000_000;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final JwtUtil jwtUtil;
+    private final int maxEntries;
+    private final Map<String, JwtPrincipal> verified = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public VerifiedTokenCache(JwtUtil jwtUtil, @Value("${security.jwt.cache.max-entries:10000}") int maxEntries) {
+        if (maxEntries < 1 || maxEntries > MAX_ENTRIES_LIMIT) {
+            throw new IllegalArgumentException("security.jwt.cache.max-entries must be between 1 and " + MAX_ENTRIES_LIMIT);
+        }
+        this.jwtUtil = jwtUtil;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * The caller of a token, from the cache when this exact token was verified before and has not
+     * expired, otherwise from {@link JwtUtil#verify}. Throws like {@code verify} for bad tokens.
+     */
+    public JwtPrincipal verify(String token) {
+        String key = digest(token);
+        JwtPrincipal cached = verified.get(key);
+        if (cached != null) {
+            if (cached.expiresAt().isAfter(Instant.now())) {
+                hits.increment();
+                return cached;
+            }
+            verified.remove(key, cached);
+        }
+        misses.increment();
+
+        JwtPrincipal principal = jwtUtil.verify(token);
+        if (principal.expiresAt() != null) {
+            if (verified.size() >= maxEntries) {
+                makeRoom();
+            }
+            verified.put(key, principal);
+        }
+        return principal;
+    }
+
+    // Drops a token right away, e.g. when it is revoked
+    public void evict(String token) {
+        if (verified.remove(digest(token)) != null) {
+            evictions.increment();
+        }
+    }
+
+    public Stats getStats() {
+        long hitCount = hits.sum();
+        long requests = hitCount + misses.sum();
+        return new Stats(hitCount, misses.sum(), requests == 0 ? 0.0 : (double) hitCount / requests,
+                evictions.sum(), verified.size(), maxEntries);
+    }
+
+    private void makeRoom() {
+        Instant now = Instant.now();
+        verified.values().removeIf(principal -> !principal.expiresAt().isAfter(now));
+        int excess = verified.size() - maxEntries + Math.max(1, maxEntries / 10);
+        Iterator<String> keys = verified.keySet().iterator();
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+
+    static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    public record Stats(long hits, long misses, double hitRate, long evictions, int size, int maxEntries) {
+    }
+}
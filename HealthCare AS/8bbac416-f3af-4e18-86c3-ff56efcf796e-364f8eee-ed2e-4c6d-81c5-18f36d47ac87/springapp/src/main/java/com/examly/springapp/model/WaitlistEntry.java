@@ -0,0 +1,82 @@
+package com.examly.springapp.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "waitlist_entry", indexes = {
+    @Index(name = "idx_waitlist_status_to_date", columnList = "status, to_date"),
+    @Index(name = "idx_waitlist_patient", columnList = "patient_id")
+})
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Plain ids: the waitlist never needs the Patient/Doctor graphs
+    @Column(name = "patient_id", nullable = false)
+    private Long patientId;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(name = "from_date", nullable = false)
+    private LocalDate fromDate;
+
+    @Column(name = "to_date", nullable = false)
+    private LocalDate toDate;
+
+    private String reason;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+
+    // The slot currently offered to this waiter and how long the offer stands (OFFERED only)
+    private LocalDate offeredDate;
+    private LocalTime offeredTime;
+    private LocalDateTime offerExpiresAt;
+
+    // Appointment created when the entry was promoted
+    private Long appointmentId;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public enum WaitlistStatus {
+        WAITING,
+        // A freed slot is held for the patient until they accept or decline it
+        OFFERED,
+        PROMOTED,
+        CANCELLED,
+        // The date window passed without a slot
+        EXPIRED
+    }
+
+    public void clearOffer() {
+        offeredDate = null;
+        offeredTime = null;
+        offerExpiresAt = null;
+    }
+}
@@ -0,0 +1,15 @@
+package com.examly.springapp.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.examly.springapp.dto.AppointmentDto;
+import com.examly.springapp.model.Appointment;
+
+// Keyset pages need a DTO projection over a dynamic WHERE clause, which derived and @Query methods cannot express
+public interface AppointmentPageRepository {
+
+    // Up to limit rows matching the filter in (appointmentDate, appointmentTime, id) order
+    List<AppointmentDto> findPage(Specification<Appointment> filter, boolean descending, int limit);
+}
@@ -0,0 +1,47 @@
+package com.examly.springapp.repository;
+
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.examly.springapp.dto.AppointmentDto;
+import com.examly.springapp.model.Appointment;
+import com.examly.springapp.model.Doctor;
+import com.examly.springapp.model.Patient;
+
+class AppointmentPageRepositoryImpl implements AppointmentPageRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AppointmentDto> findPage(Specification<Appointment> filter, boolean descending, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AppointmentDto> query = cb.createQuery(AppointmentDto.class);
+        Root<Appointment> a = query.from(Appointment.class);
+        Join<Appointment, Patient> p = a.join("patient");
+        Join<Appointment, Doctor> d = a.join("doctor");
+        // Same columns as AppointmentRepository.DTO_SELECT
+        query.select(cb.construct(AppointmentDto.class,
+                a.get("id"), a.get("appointmentDate"), a.get("appointmentTime"), a.get("reason"), a.get("status"),
+                a.get("createdAt"), p.get("id"), p.get("name"), d.get("id"), d.get("name"), d.get("specialization")));
+        Predicate where = filter != null ? filter.toPredicate(a, query, cb) : null;
+        if (where != null) {
+            query.where(where);
+        }
+        if (descending) {
+            query.orderBy(cb.desc(a.get("appointmentDate")), cb.desc(a.get("appointmentTime")), cb.desc(a.get("id")));
+        } else {
+            query.orderBy(cb.asc(a.get("appointmentDate")), cb.asc(a.get("appointmentTime")), cb.asc(a.get("id")));
+        }
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
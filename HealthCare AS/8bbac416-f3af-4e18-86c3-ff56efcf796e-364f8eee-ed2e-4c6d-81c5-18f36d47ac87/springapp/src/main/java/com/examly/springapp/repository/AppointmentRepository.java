@@ -2,31 +2,145 @@ package com.examly.springapp.repository;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.examly.springapp.dto.AppointmentAccess;
+import com.examly.springapp.dto.AppointmentDto;
+import com.examly.springapp.dto.BookedSlot;
+import com.examly.springapp.dto.DayCount;
+import com.examly.springapp.dto.DoctorCount;
+import com.examly.springapp.dto.SpecializationCount;
+import com.examly.springapp.dto.StatusCount;
 import com.examly.springapp.model.Appointment;
+import com.examly.springapp.model.AppointmentStatus;
 import com.examly.springapp.model.Doctor;
 import com.examly.springapp.model.Patient;
 
-public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+public interface AppointmentRepository extends JpaRepository<Appointment, Long>, AppointmentPageRepository {
+    
+    // Patient and doctor are lazy; these finders hand out appointments together with both in one join
+    @EntityGraph(Appointment.WITH_PARTIES)
+    Optional<Appointment> findWithPartiesById(Long id);
+    
+    @EntityGraph(Appointment.WITH_PARTIES)
+    @Query("SELECT a FROM Appointment a")
+    List<Appointment> findAllWithParties();
     
     boolean existsByDoctorAndAppointmentDateAndAppointmentTime(Doctor doctor, LocalDate date, LocalTime time);
     
+    boolean existsByDoctorIdAndAppointmentDateAndAppointmentTimeAndStatusNotIn(Long doctorId, LocalDate date, LocalTime time, Collection<AppointmentStatus> statuses);
+    
+    @EntityGraph(Appointment.WITH_PARTIES)
     List<Appointment> findByPatient(Patient patient);
     
+    @EntityGraph(Appointment.WITH_PARTIES)
     List<Appointment> findByDoctor(Doctor doctor);
     
+    @EntityGraph(Appointment.WITH_PARTIES)
     List<Appointment> findByAppointmentDateBetween(LocalDate startDate, LocalDate endDate);
     
+    @EntityGraph(Appointment.WITH_PARTIES)
     List<Appointment> findByPatientAndStatus(Patient patient, com.examly.springapp.model.AppointmentStatus status);
     
+    @EntityGraph(Appointment.WITH_PARTIES)
     List<Appointment> findByDoctorAndStatus(Doctor doctor, com.examly.springapp.model.AppointmentStatus status);
     
+    @EntityGraph(Appointment.WITH_PARTIES)
     List<Appointment> findByStatus(com.examly.springapp.model.AppointmentStatus status);
     
+    @EntityGraph(Appointment.WITH_PARTIES)
     List<Appointment> findByDoctorAndAppointmentDateGreaterThanEqual(Doctor doctor, LocalDate date);
     
+    @EntityGraph(Appointment.WITH_PARTIES)
     List<Appointment> findByPatientAndAppointmentDateGreaterThanEqual(Patient patient, LocalDate date);
+    
+    // Slot occupancy as scalar rows - no Appointment, Patient or Doctor entities are loaded
+    @Query("SELECT new com.examly.springapp.dto.BookedSlot(a.doctor.id, a.appointmentDate, a.appointmentTime) " +
+           "FROM Appointment a WHERE a.appointmentDate >= :from AND a.appointmentTime IS NOT NULL AND a.status NOT IN :released")
+    List<BookedSlot> findBookedSlotsFrom(@Param("from") LocalDate from, @Param("released") Collection<AppointmentStatus> released);
+    
+    @Query("SELECT new com.examly.springapp.dto.BookedSlot(a.doctor.id, a.appointmentDate, a.appointmentTime) " +
+           "FROM Appointment a WHERE a.doctor.id IN :doctorIds AND a.appointmentDate BETWEEN :from AND :to " +
+           "AND a.appointmentTime IS NOT NULL AND a.status NOT IN :released")
+    List<BookedSlot> findBookedSlots(@Param("doctorIds") Collection<Long> doctorIds,
+                                     @Param("from") LocalDate from,
+                                     @Param("to") LocalDate to,
+                                     @Param("released") Collection<AppointmentStatus> released);
+    
+    // Guarded status change in one statement. Returns how many of the appointments were changed; the others are
+    // missing, not the caller's or in the wrong state. Bulk updates skip @PreUpdate, so active_slot is cleared here for releasing transitions.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Appointment a SET a.status = :to, a.transitionStamp = :stamp, " +
+           "a.activeSlot = CASE WHEN :releasesSlot = true THEN NULL ELSE a.activeSlot END " +
+           "WHERE a.id IN :ids AND a.status IN :from AND (:admin = true " +
+           "OR a.doctor.id IN (SELECT d.id FROM Doctor d WHERE d.email = :email) " +
+           "OR (:patientAllowed = true AND a.patient.id IN (SELECT p.id FROM Patient p WHERE p.email = :email)))")
+    int transitionStatus(@Param("ids") Collection<Long> ids,
+                         @Param("from") Collection<AppointmentStatus> from,
+                         @Param("to") AppointmentStatus to,
+                         @Param("releasesSlot") boolean releasesSlot,
+                         @Param("email") String email,
+                         @Param("admin") boolean admin,
+                         @Param("patientAllowed") boolean patientAllowed,
+                         @Param("stamp") String stamp);
+    
+    // Which of the appointments the transitionStatus call with this stamp changed
+    @Query("SELECT a.id FROM Appointment a WHERE a.id IN :ids AND a.transitionStamp = :stamp")
+    List<Long> findIdsByTransitionStamp(@Param("ids") Collection<Long> ids, @Param("stamp") String stamp);
+    
+    @Query("SELECT new com.examly.springapp.dto.AppointmentAccess(a.id, a.status, a.doctor.id, a.doctor.email, " +
+           "a.patient.email, a.appointmentDate, a.appointmentTime) FROM Appointment a WHERE a.id = :id")
+    Optional<AppointmentAccess> findAccessById(@Param("id") Long id);
+    
+    @Query("SELECT new com.examly.springapp.dto.AppointmentAccess(a.id, a.status, a.doctor.id, a.doctor.email, " +
+           "a.patient.email, a.appointmentDate, a.appointmentTime) FROM Appointment a WHERE a.id IN :ids")
+    List<AppointmentAccess> findAccessByIds(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT new com.examly.springapp.dto.AppointmentAccess(a.id, a.status, a.doctor.id, a.doctor.email, " +
+           "a.patient.email, a.appointmentDate, a.appointmentTime) FROM Appointment a " +
+           "WHERE a.doctor.id = :doctorId AND a.appointmentDate = :date AND a.status IN :statuses ORDER BY a.appointmentTime")
+    List<AppointmentAccess> findAccessByDoctorAndDate(@Param("doctorId") Long doctorId,
+                                                      @Param("date") LocalDate date,
+                                                      @Param("statuses") Collection<AppointmentStatus> statuses);
+    
+    // List views read straight into AppointmentDto; no entities end up in the persistence context
+    String DTO_SELECT = "SELECT new com.examly.springapp.dto.AppointmentDto(a.id, a.appointmentDate, a.appointmentTime, " +
+            "a.reason, a.status, a.createdAt, p.id, p.name, d.id, d.name, d.specialization) " +
+            "FROM Appointment a JOIN a.patient p JOIN a.doctor d ";
+    
+    @Query(DTO_SELECT + "ORDER BY a.appointmentDate, a.appointmentTime, a.id")
+    List<AppointmentDto> findAllDtos();
+    
+    @Query(DTO_SELECT + "WHERE d.id = :doctorId ORDER BY a.appointmentDate, a.appointmentTime, a.id")
+    List<AppointmentDto> findDtosByDoctorId(@Param("doctorId") Long doctorId);
+    
+    @Query(DTO_SELECT + "WHERE p.id = :patientId ORDER BY a.appointmentDate, a.appointmentTime, a.id")
+    List<AppointmentDto> findDtosByPatientId(@Param("patientId") Long patientId);
+    
+    // Admin dashboard aggregates: GROUP BY in the database, one scalar row per group
+    @Query("SELECT new com.examly.springapp.dto.StatusCount(a.status, COUNT(a)) FROM Appointment a " +
+           "WHERE a.appointmentDate BETWEEN :from AND :to GROUP BY a.status ORDER BY a.status")
+    List<StatusCount> countByStatus(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Query("SELECT new com.examly.springapp.dto.DoctorCount(d.id, d.name, d.specialization, COUNT(a)) " +
+           "FROM Appointment a JOIN a.doctor d WHERE a.appointmentDate BETWEEN :from AND :to " +
+           "GROUP BY d.id, d.name, d.specialization ORDER BY COUNT(a) DESC, d.name")
+    List<DoctorCount> countByDoctor(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Query("SELECT new com.examly.springapp.dto.DayCount(a.appointmentDate, COUNT(a)) FROM Appointment a " +
+           "WHERE a.appointmentDate BETWEEN :from AND :to GROUP BY a.appointmentDate ORDER BY a.appointmentDate")
+    List<DayCount> countByDay(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Query("SELECT new com.examly.springapp.dto.SpecializationCount(d.specialization, COUNT(a)) " +
+           "FROM Appointment a JOIN a.doctor d WHERE a.appointmentDate BETWEEN :from AND :to " +
+           "GROUP BY d.specialization ORDER BY COUNT(a) DESC, d.specialization")
+    List<SpecializationCount> countBySpecialization(@Param("from") LocalDate from, @Param("to") LocalDate to);
 }
\ No newline at end of file
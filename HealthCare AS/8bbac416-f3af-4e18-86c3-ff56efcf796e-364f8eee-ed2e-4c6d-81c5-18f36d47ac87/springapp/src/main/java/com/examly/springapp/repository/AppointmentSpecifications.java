@@ -0,0 +1,94 @@
+package com.examly.springapp.repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import jakarta.persistence.criteria.Path;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.examly.springapp.dto.AppointmentCursor;
+import com.examly.springapp.model.Appointment;
+import com.examly.springapp.model.AppointmentStatus;
+
+/**
+ * Composable appointment filters for the keyset pages. Like {@link DoctorSpecifications}, a null
+ * argument yields a null specification, so only the filters that were supplied reach the WHERE
+ * clause and MySQL can pick the index whose prefix they match (doctor_id or patient_id, then
+ * date, time, id) instead of a catch-all {@code :x IS NULL OR ...} plan.
+ */
+public final class AppointmentSpecifications {
+
+    private AppointmentSpecifications() {
+    }
+
+    public static Specification<Appointment> forDoctor(Long doctorId) {
+        if (doctorId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("doctor").get("id"), doctorId);
+    }
+
+    public static Specification<Appointment> forPatient(Long patientId) {
+        if (patientId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("patient").get("id"), patientId);
+    }
+
+    public static Specification<Appointment> hasStatus(AppointmentStatus status) {
+        if (status == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Appointment> onOrAfter(LocalDate from) {
+        if (from == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("appointmentDate"), from);
+    }
+
+    public static Specification<Appointment> onOrBefore(LocalDate to) {
+        if (to == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("appointmentDate"), to);
+    }
+
+    // Rows without a date or time have no place in the (date, time, id) order and cannot be paged
+    public static Specification<Appointment> scheduled() {
+        return (root, query, cb) -> cb.and(
+                cb.isNotNull(root.get("appointmentDate")),
+                cb.isNotNull(root.get("appointmentTime")));
+    }
+
+    /**
+     * Rows strictly past the cursor in (date, time, id) order. JPQL has no row-value comparison, so
+     * the expanded form is led by a plain range on the date that the index can seek on; the OR only
+     * filters the rows of the cursor's own day.
+     */
+    public static Specification<Appointment> after(AppointmentCursor cursor, boolean descending) {
+        if (cursor == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Path<LocalDate> date = root.get("appointmentDate");
+            Path<LocalTime> time = root.get("appointmentTime");
+            Path<Long> id = root.get("id");
+            if (descending) {
+                return cb.and(
+                        cb.lessThanOrEqualTo(date, cursor.date()),
+                        cb.or(cb.lessThan(date, cursor.date()),
+                                cb.lessThan(time, cursor.time()),
+                                cb.and(cb.equal(time, cursor.time()), cb.lessThan(id, cursor.id()))));
+            }
+            return cb.and(
+                    cb.greaterThanOrEqualTo(date, cursor.date()),
+                    cb.or(cb.greaterThan(date, cursor.date()),
+                            cb.greaterThan(time, cursor.time()),
+                            cb.and(cb.equal(time, cursor.time()), cb.greaterThan(id, cursor.id()))));
+        };
+    }
+}
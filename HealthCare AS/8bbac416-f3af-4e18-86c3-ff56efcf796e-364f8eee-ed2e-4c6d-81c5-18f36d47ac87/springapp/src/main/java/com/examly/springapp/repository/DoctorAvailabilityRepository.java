@@ -1,5 +1,6 @@
 package com.examly.springapp.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -8,6 +9,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.examly.springapp.dto.RowsFingerprint;
 import com.examly.springapp.model.Doctor;
 import com.examly.springapp.model.DoctorAvailability;
 
@@ -27,4 +29,14 @@ public interface DoctorAvailabilityRepository extends JpaRepository<DoctorAvaila
     List<DoctorAvailability> findActiveAvailabilityByDoctorId(@Param("doctorId") Long doctorId);
     
     boolean existsByDoctorAndDayOfWeek(Doctor doctor, String dayOfWeek);
+    
+    // Weekly templates for several doctors with their time slots in one round trip
+    @Query("SELECT DISTINCT da FROM DoctorAvailability da LEFT JOIN FETCH da.timeSlots " +
+           "WHERE da.doctor.id IN :doctorIds AND da.isActive = true")
+    List<DoctorAvailability> findActiveWithSlotsByDoctorIds(@Param("doctorIds") Collection<Long> doctorIds);
+    
+    // Validator for a doctor's availability list; one scalar row, no entities loaded
+    @Query("SELECT new com.examly.springapp.dto.RowsFingerprint(COUNT(da), MAX(da.id), SUM(da.id), SUM(da.version)) " +
+           "FROM DoctorAvailability da WHERE da.doctor.id = :doctorId AND da.isActive = true")
+    RowsFingerprint fingerprintActiveByDoctorId(@Param("doctorId") Long doctorId);
 }
\ No newline at end of file
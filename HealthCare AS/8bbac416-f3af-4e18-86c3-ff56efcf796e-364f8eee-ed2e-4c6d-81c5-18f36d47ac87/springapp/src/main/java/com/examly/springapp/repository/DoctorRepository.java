@@ -4,14 +4,20 @@ package com.examly.springapp.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.examly.springapp.dto.DoctorSummary;
+import com.examly.springapp.dto.RowsFingerprint;
 import com.examly.springapp.model.Doctor;
 import com.examly.springapp.model.Doctor.ProfileStatus;
 
-public interface DoctorRepository extends JpaRepository<Doctor, Long> {
+// Ad-hoc filtered searches go through JpaSpecificationExecutor with DoctorSpecifications
+public interface DoctorRepository extends JpaRepository<Doctor, Long>, JpaSpecificationExecutor<Doctor> {
     
     Optional<Doctor> findByEmail(String email);
     
@@ -36,4 +42,33 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     
     @Query("SELECT DISTINCT d.clinicName FROM Doctor d WHERE d.clinicName IS NOT NULL AND d.status = 'ACTIVE'")
     List<String> findActiveClinicNames();
+    
+    @Query("SELECT new com.examly.springapp.dto.DoctorSummary(d.id, d.name, d.specialization, d.clinicName) FROM Doctor d " +
+           "WHERE d.status = :status " +
+           "AND (:specialization IS NULL OR LOWER(d.specialization) LIKE LOWER(CONCAT('%', :specialization, '%'))) " +
+           "AND (:clinicName IS NULL OR LOWER(d.clinicName) LIKE LOWER(CONCAT('%', :clinicName, '%')))")
+    List<DoctorSummary> findSummaries(@Param("specialization") String specialization,
+                                      @Param("clinicName") String clinicName,
+                                      @Param("status") ProfileStatus status);
+    
+    // Search box fallback while the in-memory search index is still loading
+    @Query("SELECT new com.examly.springapp.dto.DoctorSummary(d.id, d.name, d.specialization, d.clinicName) FROM Doctor d " +
+           "WHERE d.status = :status AND (LOWER(d.name) LIKE CONCAT('%', :term, '%') " +
+           "OR LOWER(d.specialization) LIKE CONCAT('%', :term, '%') OR LOWER(d.clinicName) LIKE CONCAT('%', :term, '%')) " +
+           "ORDER BY d.name")
+    List<DoctorSummary> searchSummaries(@Param("term") String term,
+                                       @Param("status") ProfileStatus status,
+                                       Pageable limit);
+    
+    // Validators for the doctor endpoints; scalar reads, no Doctor is loaded
+    @Query("SELECT d.version FROM Doctor d WHERE d.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+    
+    @Query("SELECT new com.examly.springapp.dto.RowsFingerprint(COUNT(d), MAX(d.id), SUM(d.id), SUM(d.version)) FROM Doctor d")
+    RowsFingerprint fingerprintAll();
+
+    // Rehash on login; leaves the version alone since the hash is never part of a response
+    @Modifying
+    @Query("UPDATE Doctor d SET d.password = :password WHERE d.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.examly.springapp.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.examly.springapp.model.Doctor;
+import com.examly.springapp.model.Doctor.ProfileStatus;
+
+/**
+ * Composable doctor filters. A null or blank argument yields a null specification, which
+ * {@link Specification#where} and {@code and} ignore, so callers can chain every filter
+ * unconditionally and only the ones that were supplied end up in the WHERE clause.
+ */
+public final class DoctorSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private DoctorSpecifications() {
+    }
+
+    public static Specification<Doctor> specializationContains(String specialization) {
+        return containsIgnoreCase("specialization", specialization);
+    }
+
+    public static Specification<Doctor> clinicNameContains(String clinicName) {
+        return containsIgnoreCase("clinicName", clinicName);
+    }
+
+    public static Specification<Doctor> hasStatus(ProfileStatus status) {
+        if (status == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    private static Specification<Doctor> containsIgnoreCase(String attribute, String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        String pattern = "%" + escapeLike(value.trim().toLowerCase()) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get(attribute)), pattern, LIKE_ESCAPE);
+    }
+
+    // User input is matched literally; % and _ must not act as wildcards
+    static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
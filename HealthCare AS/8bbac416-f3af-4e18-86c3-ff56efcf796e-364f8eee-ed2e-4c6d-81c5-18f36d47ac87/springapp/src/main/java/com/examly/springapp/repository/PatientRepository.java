@@ -3,10 +3,16 @@ package com.examly.springapp.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.examly.springapp.model.Patient;
 
 public interface PatientRepository extends JpaRepository<Patient,Long>{
     Optional<Patient> findByEmail(String email);
 
+    @Modifying
+    @Query("UPDATE Patient p SET p.password = :password WHERE p.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 }
@@ -0,0 +1,21 @@
+package com.examly.springapp.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.examly.springapp.model.Role;
+import com.examly.springapp.model.UserIdentity;
+
+public interface UserIdentityRepository extends JpaRepository<UserIdentity, String> {
+
+    // Rows of the same user under another email, e.g. after an email change
+    @Modifying
+    @Query("DELETE FROM UserIdentity u WHERE u.role = :role AND u.entityId = :entityId AND u.email <> :email")
+    int deleteOtherEmails(@Param("role") Role role, @Param("entityId") Long entityId, @Param("email") String email);
+
+    @Modifying
+    @Query("DELETE FROM UserIdentity u WHERE u.role = :role AND u.entityId = :entityId")
+    int deleteByEntity(@Param("role") Role role, @Param("entityId") Long entityId);
+}
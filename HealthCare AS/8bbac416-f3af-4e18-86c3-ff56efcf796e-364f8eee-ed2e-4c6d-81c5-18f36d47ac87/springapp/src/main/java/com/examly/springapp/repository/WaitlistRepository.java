@@ -0,0 +1,30 @@
+package com.examly.springapp.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.examly.springapp.model.WaitlistEntry;
+import com.examly.springapp.model.WaitlistEntry.WaitlistStatus;
+
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    List<WaitlistEntry> findByStatusAndToDateGreaterThanEqual(WaitlistStatus status, LocalDate date);
+
+    List<WaitlistEntry> findByPatientIdOrderByCreatedAtDesc(Long patientId);
+
+    // Offers are backed by in-memory slot holds, which do not survive a restart
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = :waiting, w.offeredDate = NULL, w.offeredTime = NULL, w.offerExpiresAt = NULL " +
+           "WHERE w.status = :offered")
+    int reopenOffers(@Param("offered") WaitlistStatus offered, @Param("waiting") WaitlistStatus waiting);
+
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = :expired WHERE w.status = :waiting AND w.toDate < :today")
+    int expireWaitingBefore(@Param("today") LocalDate today, @Param("waiting") WaitlistStatus waiting,
+                            @Param("expired") WaitlistStatus expired);
+}
@@ -0,0 +1,87 @@
+package com.examly.springapp.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.examly.springapp.dto.AppointmentStats;
+import com.examly.springapp.dto.StatusCount;
+import com.examly.springapp.repository.AppointmentRepository;
+
+/**
+ * Appointment counts for the admin dashboard. Four GROUP BY queries replace pulling every
+ * appointment to the browser; answers are kept for a few seconds per date window so repeated
+ * dashboard refreshes do not hit the database at all.
+ */
+@Service
+public class AdminStatsService {
+
+    public static final int MAX_WINDOW_DAYS = 366;
+    public static final int DEFAULT_WINDOW_DAYS = 30;
+
+    // Dashboards ask for a handful of windows; anything beyond this is dropped wholesale
+    private static final int MAX_CACHED_WINDOWS = 64;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Value("${admin.stats.cache-ttl-seconds:30}")
+    private long cacheTtlSeconds;
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final Map<String, CachedStats> cache = new ConcurrentHashMap<>();
+
+    public AdminStatsService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Not @Transactional: a cache hit must not borrow a connection
+    public AppointmentStats getStats(LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_WINDOW_DAYS - 1L);
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("End date cannot be before start date");
+        }
+        if (end.toEpochDay() - start.toEpochDay() >= MAX_WINDOW_DAYS) {
+            throw new IllegalArgumentException("Window cannot exceed " + MAX_WINDOW_DAYS + " days");
+        }
+
+        String key = start + "/" + end;
+        CachedStats cached = cache.get(key);
+        if (cached != null && cached.expiresAtNanos() - System.nanoTime() > 0) {
+            return cached.stats();
+        }
+
+        // One read-only transaction so the four breakdowns agree with each other
+        AppointmentStats stats = readOnlyTransaction.execute(status -> {
+            List<StatusCount> byStatus = appointmentRepository.countByStatus(start, end);
+            long total = byStatus.stream().mapToLong(StatusCount::count).sum();
+            return new AppointmentStats(start, end, total, byStatus,
+                    appointmentRepository.countByDoctor(start, end),
+                    appointmentRepository.countByDay(start, end),
+                    appointmentRepository.countBySpecialization(start, end),
+                    LocalDateTime.now());
+        });
+
+        if (cacheTtlSeconds > 0) {
+            if (cache.size() >= MAX_CACHED_WINDOWS) {
+                cache.clear();
+            }
+            cache.put(key, new CachedStats(stats, System.nanoTime() + TimeUnit.SECONDS.toNanos(cacheTtlSeconds)));
+        }
+        return stats;
+    }
+
+    private record CachedStats(AppointmentStats stats, long expiresAtNanos) {
+    }
+}
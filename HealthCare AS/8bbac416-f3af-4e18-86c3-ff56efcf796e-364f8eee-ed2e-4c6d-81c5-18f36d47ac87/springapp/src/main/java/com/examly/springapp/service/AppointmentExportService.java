@@ -0,0 +1,155 @@
+package com.examly.springapp.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.examly.springapp.dto.AppointmentCursor;
+import com.examly.springapp.dto.AppointmentDto;
+import com.examly.springapp.model.Appointment;
+import com.examly.springapp.repository.AppointmentRepository;
+import com.examly.springapp.repository.AppointmentSpecifications;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Streams appointments of a date range to the response in keyset chunks. Each chunk is read in its
+ * own short read-only transaction, so a slow download never pins a connection, and rows are
+ * AppointmentDto projections that are never managed by the persistence context, so memory stays at
+ * one chunk however long the range is.
+ */
+@Service
+public class AppointmentExportService {
+
+    public static final int MAX_WINDOW_DAYS = 366;
+    static final int CHUNK_SIZE = 1000;
+
+    private static final String CSV_HEADER = "id,appointmentDate,appointmentTime,status,patientId,patientName,"
+            + "doctorId,doctorName,doctorSpecialization,reason,createdAt";
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public AppointmentExportService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    // Checked before anything is written so bad requests can still get a proper error status
+    public Format validate(LocalDate from, LocalDate to, String format) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Both from and to dates are required");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date cannot be after end date");
+        }
+        if (to.toEpochDay() - from.toEpochDay() >= MAX_WINDOW_DAYS) {
+            throw new IllegalArgumentException("Window cannot exceed " + MAX_WINDOW_DAYS + " days");
+        }
+        try {
+            return Format.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Format must be ndjson or csv");
+        }
+    }
+
+    /**
+     * Writes every scheduled appointment between {@code from} and {@code to} to {@code out} and returns
+     * the row count. Rows committed while the export runs may or may not be included, as each chunk
+     * sees the data as of its own transaction.
+     */
+    public long export(LocalDate from, LocalDate to, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long rows = 0;
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        Specification<Appointment> range = Specification.where(AppointmentSpecifications.scheduled())
+                .and(AppointmentSpecifications.onOrAfter(from))
+                .and(AppointmentSpecifications.onOrBefore(to));
+        AppointmentCursor after = null;
+        List<AppointmentDto> chunk;
+        do {
+            Specification<Appointment> filter = range.and(AppointmentSpecifications.after(after, false));
+            chunk = readOnlyTransaction.execute(status -> appointmentRepository.findPage(filter, false, CHUNK_SIZE));
+            for (AppointmentDto row : chunk) {
+                writer.write(format == Format.CSV ? toCsv(row) : objectMapper.writeValueAsString(row));
+                writer.write('\n');
+                rows++;
+            }
+            writer.flush();
+            if (!chunk.isEmpty()) {
+                AppointmentDto last = chunk.get(chunk.size() - 1);
+                after = new AppointmentCursor(last.appointmentDate(), last.appointmentTime(), last.id());
+            }
+        } while (chunk.size() == CHUNK_SIZE);
+        return rows;
+    }
+
+    private static String toCsv(AppointmentDto row) {
+        return String.join(",",
+                csv(row.id()),
+                csv(row.appointmentDate()),
+                csv(row.appointmentTime()),
+                csv(row.status()),
+                csv(row.patient().id()),
+                csv(row.patient().name()),
+                csv(row.doctor().id()),
+                csv(row.doctor().name()),
+                csv(row.doctor().specialization()),
+                csv(row.reason()),
+                csv(row.createdAt()));
+    }
+
+    // RFC 4180 quoting; values starting with a formula character are prefixed so spreadsheets treat them as text
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
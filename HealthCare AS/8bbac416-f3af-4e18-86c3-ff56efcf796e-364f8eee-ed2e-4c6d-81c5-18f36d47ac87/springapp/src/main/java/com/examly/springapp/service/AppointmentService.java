@@ -3,18 +3,47 @@ package com.examly.springapp.service;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.examly.springapp.dto.AppointmentAccess;
+import com.examly.springapp.dto.AppointmentCursor;
+import com.examly.springapp.dto.AppointmentDto;
+import com.examly.springapp.dto.AppointmentPageQuery;
+import com.examly.springapp.dto.BookingRequest;
+import com.examly.springapp.dto.BookingResult;
+import com.examly.springapp.dto.CursorPage;
+import com.examly.springapp.dto.SeriesRequest;
+import com.examly.springapp.dto.SeriesResult;
+import com.examly.springapp.dto.TransitionResult;
 import com.examly.springapp.model.Appointment;
 import com.examly.springapp.model.AppointmentStatus;
+import com.examly.springapp.model.AppointmentTransition;
 import com.examly.springapp.model.Doctor;
 import com.examly.springapp.model.Patient;
 import com.examly.springapp.repository.AppointmentRepository;
+import com.examly.springapp.repository.AppointmentSpecifications;
 import com.examly.springapp.repository.DoctorRepository;
 import com.examly.springapp.repository.PatientRepository;
 
@@ -22,6 +51,16 @@ import com.examly.springapp.repository.PatientRepository;
 @Transactional
 public class AppointmentService {
     
+    private static final int MAX_BATCH_BOOKINGS = 500;
+    private static final int MAX_BATCH_ATTEMPTS = 3;
+    // A weekly series for a whole year
+    private static final int MAX_SERIES_OCCURRENCES = 52;
+    // How far ahead a series may book
+    private static final int MAX_SERIES_HORIZON_YEARS = 2;
+    private static final int MAX_BULK_TRANSITIONS = 500;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    
     @Autowired
     private AppointmentRepository appointmentRepository;
     
@@ -30,6 +69,18 @@ public class AppointmentService {
     
     @Autowired
     private DoctorRepository doctorRepository;
+    
+    @Autowired
+    private SlotOccupancyIndex slotOccupancyIndex;
+    
+    @Autowired
+    private SlotHoldService slotHoldService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     // Get appointments for specific doctor (for doctor role)
     public List<Appointment> getAppointmentsByDoctor(Doctor doctor) {
@@ -45,160 +96,150 @@ public class AppointmentService {
 
     // APPROVE appointment - Only doctors can approve their own appointments
     public String approveAppointment(Long appointmentId, String userEmail, boolean isAdmin) {
-        try {
-            Optional<Appointment> appointmentOpt = appointmentRepository.findById(appointmentId);
-            if (appointmentOpt.isEmpty()) {
-                return "Appointment not found";
-            }
-
-            Appointment appointment = appointmentOpt.get();
-            
-            // Check if user has permission to approve this appointment
-            if (!isAdmin && !appointment.getDoctor().getEmail().equals(userEmail)) {
-                return "You can only approve your own appointments";
-            }
-
-            if (appointment.getStatus() != AppointmentStatus.SCHEDULED && 
-                appointment.getStatus() != AppointmentStatus.PENDING) {
-                return "Only scheduled/pending appointments can be approved";
-            }
-
-            appointment.setStatus(AppointmentStatus.CONFIRMED);
-            appointmentRepository.save(appointment);
-            return "Appointment approved successfully";
-
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to approve appointment: " + e.getMessage());
-        }
+        return transition(appointmentId, userEmail, isAdmin, AppointmentTransition.APPROVE).message();
     }
 
     // REJECT appointment - Only doctors can reject their own appointments
     public String rejectAppointment(Long appointmentId, String userEmail, boolean isAdmin, String rejectionReason) {
-        try {
-            Optional<Appointment> appointmentOpt = appointmentRepository.findById(appointmentId);
-            if (appointmentOpt.isEmpty()) {
-                return "Appointment not found";
-            }
-
-            Appointment appointment = appointmentOpt.get();
-            
-            // Check if user has permission to reject this appointment
-            if (!isAdmin && !appointment.getDoctor().getEmail().equals(userEmail)) {
-                return "You can only reject your own appointments";
-            }
-
-            if (appointment.getStatus() == AppointmentStatus.COMPLETED) {
-                return "Cannot reject a completed appointment";
-            }
-
-            appointment.setStatus(AppointmentStatus.CANCELLED);
-            // You can add a rejection reason field to your Appointment model if needed
-            appointmentRepository.save(appointment);
-            return "Appointment rejected successfully";
-
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to reject appointment: " + e.getMessage());
-        }
+        // You can add a rejection reason field to your Appointment model if needed
+        return transition(appointmentId, userEmail, isAdmin, AppointmentTransition.REJECT).message();
     }
 
     public String confirmAppointment(Long appointmentId, String userEmail, boolean isAdmin) {
-        try {
-            Optional<Appointment> appointmentOpt = appointmentRepository.findById(appointmentId);
-            if (appointmentOpt.isEmpty()) {
-                return "Appointment not found";
-            }
-
-            Appointment appointment = appointmentOpt.get();
-            
-            // Check if user has permission to confirm this appointment
-            if (!isAdmin && !appointment.getDoctor().getEmail().equals(userEmail)) {
-                return "You can only confirm your own appointments";
-            }
-
-            if (appointment.getStatus() != AppointmentStatus.PENDING && 
-                appointment.getStatus() != AppointmentStatus.SCHEDULED) {
-                return "Only pending/scheduled appointments can be confirmed";
-            }
+        return transition(appointmentId, userEmail, isAdmin, AppointmentTransition.CONFIRM).message();
+    }
 
-            appointment.setStatus(AppointmentStatus.CONFIRMED);
-            appointmentRepository.save(appointment);
-            return "Appointment confirmed successfully";
+    public String cancelAppointment(Long appointmentId, String userEmail, boolean isAdmin) {
+        return transition(appointmentId, userEmail, isAdmin, AppointmentTransition.CANCEL).message();
+    }
 
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to confirm appointment: " + e.getMessage());
-        }
+    public String completeAppointment(Long appointmentId, String userEmail, boolean isAdmin) {
+        return transition(appointmentId, userEmail, isAdmin, AppointmentTransition.COMPLETE).message();
     }
 
-    public String cancelAppointment(Long appointmentId, String userEmail, boolean isAdmin) {
+    /**
+     * Applies a transition as one conditional UPDATE guarded by state and ownership. The row count tells
+     * whether it was applied; only a refused update reads the appointment to explain why.
+     */
+    public TransitionResult transition(Long appointmentId, String userEmail, boolean isAdmin, AppointmentTransition transition) {
         try {
-            Optional<Appointment> appointmentOpt = appointmentRepository.findById(appointmentId);
-            if (appointmentOpt.isEmpty()) {
-                return "Appointment not found";
-            }
-
-            Appointment appointment = appointmentOpt.get();
-            
-            // Check if user has permission to cancel this appointment
-            boolean canCancel = isAdmin || 
-                               appointment.getDoctor().getEmail().equals(userEmail) ||
-                               appointment.getPatient().getEmail().equals(userEmail);
-            
-            if (!canCancel) {
-                return "You don't have permission to cancel this appointment";
+            int updated = appointmentRepository.transitionStatus(List.of(appointmentId), transition.getFrom(), transition.getTarget(),
+                    transition.releasesSlot(), userEmail, isAdmin, transition.isPatientAllowed(), UUID.randomUUID().toString());
+            if (updated == 0) {
+                return explainRefusal(appointmentId, userEmail, isAdmin, transition);
             }
-
-            if (appointment.getStatus() == AppointmentStatus.COMPLETED) {
-                return "Cannot cancel a completed appointment";
+            if (transition.releasesSlot()) {
+                appointmentRepository.findAccessById(appointmentId)
+                        .ifPresent(a -> releaseSlot(a.doctorId(), a.appointmentDate(), a.appointmentTime()));
             }
-
-            appointment.setStatus(AppointmentStatus.CANCELLED);
-            appointmentRepository.save(appointment);
-            return "Appointment cancelled successfully";
-
+            return TransitionResult.applied(appointmentId, "Appointment " + transition.getPastTense() + " successfully");
         } catch (Exception e) {
-            throw new RuntimeException("Failed to cancel appointment: " + e.getMessage());
+            throw new RuntimeException("Failed to " + transition.getVerb() + " appointment: " + e.getMessage());
         }
     }
 
-    public String completeAppointment(Long appointmentId, String userEmail, boolean isAdmin) {
-        try {
-            Optional<Appointment> appointmentOpt = appointmentRepository.findById(appointmentId);
-            if (appointmentOpt.isEmpty()) {
-                return "Appointment not found";
+    /**
+     * Applies one transition to many appointments, either an explicit id list or every eligible appointment of
+     * a doctor on a date. One read decides each appointment's outcome with the same rules as
+     * {@link #transition}, then a single UPDATE changes all permitted ones.
+     */
+    public List<TransitionResult> bulkTransition(AppointmentTransition transition, Collection<Long> appointmentIds,
+                                                 Long doctorId, LocalDate date, String userEmail, boolean isAdmin) {
+        List<AppointmentAccess> candidates;
+        List<Long> requestedIds;
+        if (appointmentIds != null && !appointmentIds.isEmpty()) {
+            requestedIds = appointmentIds.stream().distinct().toList();
+            if (requestedIds.size() > MAX_BULK_TRANSITIONS) {
+                throw new IllegalArgumentException("At most " + MAX_BULK_TRANSITIONS + " appointments can be updated at once");
             }
-
-            Appointment appointment = appointmentOpt.get();
-            
-            // Check if user has permission to complete this appointment
-            if (!isAdmin && !appointment.getDoctor().getEmail().equals(userEmail)) {
-                return "You can only complete your own appointments";
+            candidates = appointmentRepository.findAccessByIds(requestedIds);
+        } else if (doctorId != null && date != null) {
+            candidates = appointmentRepository.findAccessByDoctorAndDate(doctorId, date, transition.getFrom());
+            requestedIds = candidates.stream().map(AppointmentAccess::id).toList();
+        } else {
+            throw new IllegalArgumentException("Either appointment IDs or a doctor ID and date are required");
+        }
+        
+        Map<Long, AppointmentAccess> byId = candidates.stream()
+                .collect(Collectors.toMap(AppointmentAccess::id, Function.identity()));
+        Map<Long, TransitionResult> results = new LinkedHashMap<>();
+        List<Long> eligible = new ArrayList<>();
+        for (Long id : requestedIds) {
+            AppointmentAccess access = byId.get(id);
+            if (access == null) {
+                results.put(id, TransitionResult.notFound(id));
+            } else if (!mayPerform(access, userEmail, isAdmin, transition)) {
+                results.put(id, TransitionResult.forbidden(id, transition.getForbiddenMessage()));
+            } else if (!transition.getFrom().contains(access.status())) {
+                results.put(id, TransitionResult.invalidState(id, transition.releasesSlot() && !access.status().holdsSlot()
+                        ? "Appointment is already cancelled" : transition.getInvalidStateMessage()));
+            } else {
+                eligible.add(id);
+                results.put(id, TransitionResult.applied(id, "Appointment " + transition.getPastTense() + " successfully"));
             }
-
-            if (appointment.getStatus() != AppointmentStatus.CONFIRMED) {
-                return "Only confirmed appointments can be completed";
+        }
+        if (eligible.isEmpty()) {
+            return new ArrayList<>(results.values());
+        }
+        
+        String stamp = UUID.randomUUID().toString();
+        int updated = appointmentRepository.transitionStatus(eligible, transition.getFrom(), transition.getTarget(),
+                transition.releasesSlot(), userEmail, isAdmin, transition.isPatientAllowed(), stamp);
+        // Only the stamp says which rows this UPDATE changed: another request may have moved a row to the same
+        // target, or deleted it, after the read
+        Set<Long> changed = updated == eligible.size()
+                ? new HashSet<>(eligible)
+                : new HashSet<>(appointmentRepository.findIdsByTransitionStamp(eligible, stamp));
+        if (changed.size() < eligible.size()) {
+            List<Long> skipped = eligible.stream().filter(id -> !changed.contains(id)).toList();
+            Set<Long> remaining = appointmentRepository.findAccessByIds(skipped).stream()
+                    .map(AppointmentAccess::id)
+                    .collect(Collectors.toSet());
+            for (Long id : skipped) {
+                results.put(id, remaining.contains(id)
+                        ? TransitionResult.invalidState(id, "Appointment was modified concurrently, please try again")
+                        : TransitionResult.notFound(id));
+            }
+        }
+        if (transition.releasesSlot()) {
+            for (Long id : eligible) {
+                if (changed.contains(id)) {
+                    AppointmentAccess access = byId.get(id);
+                    releaseSlot(access.doctorId(), access.appointmentDate(), access.appointmentTime());
+                }
             }
-
-            appointment.setStatus(AppointmentStatus.COMPLETED);
-            appointmentRepository.save(appointment);
-            return "Appointment completed successfully";
-
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to complete appointment: " + e.getMessage());
         }
+        System.out.println("📋 Bulk " + transition.getVerb() + ": " + updated + " of " + requestedIds.size() + " appointments updated");
+        return new ArrayList<>(results.values());
     }
-    
-    public Appointment bookAppointment(Long patientId, Long doctorId, LocalDate date, LocalTime time, String reason) {
-        if (patientId == null || doctorId == null || date == null || time == null || reason == null || reason.trim().isEmpty()) {
-            throw new IllegalArgumentException("All appointment details are required");
+
+    private TransitionResult explainRefusal(Long appointmentId, String userEmail, boolean isAdmin, AppointmentTransition transition) {
+        Optional<AppointmentAccess> accessOpt = appointmentRepository.findAccessById(appointmentId);
+        if (accessOpt.isEmpty()) {
+            return TransitionResult.notFound(appointmentId);
         }
-        
-        if (date.isBefore(LocalDate.now())) {
-            throw new IllegalArgumentException("Cannot book appointment for past dates");
+        AppointmentAccess access = accessOpt.get();
+        if (!mayPerform(access, userEmail, isAdmin, transition)) {
+            return TransitionResult.forbidden(appointmentId, transition.getForbiddenMessage());
         }
-        
-        if (date.equals(LocalDate.now()) && time.isBefore(LocalTime.now())) {
-            throw new IllegalArgumentException("Cannot book appointment for past time today");
+        if (transition.getFrom().contains(access.status())) {
+            // The status changed between the UPDATE and this read
+            return TransitionResult.invalidState(appointmentId, "Appointment was modified concurrently, please try again");
+        }
+        if (transition.releasesSlot() && !access.status().holdsSlot()) {
+            return TransitionResult.invalidState(appointmentId, "Appointment is already cancelled");
         }
+        return TransitionResult.invalidState(appointmentId, transition.getInvalidStateMessage());
+    }
+
+    private static boolean mayPerform(AppointmentAccess access, String userEmail, boolean isAdmin, AppointmentTransition transition) {
+        return isAdmin
+                || access.doctorEmail().equals(userEmail)
+                || (transition.isPatientAllowed() && access.patientEmail().equals(userEmail));
+    }
+    
+    public Appointment bookAppointment(Long patientId, Long doctorId, LocalDate date, LocalTime time, String reason) {
+        validateBookingDetails(patientId, doctorId, date, time, reason);
         
         Patient patient = patientRepository.findById(patientId)
                 .orElseThrow(() -> new IllegalArgumentException("Patient not found with ID: " + patientId));
@@ -206,8 +247,10 @@ public class AppointmentService {
         Doctor doctor = doctorRepository.findById(doctorId)
                 .orElseThrow(() -> new IllegalArgumentException("Doctor not found with ID: " + doctorId));
         
-        boolean exists = appointmentRepository.existsByDoctorAndAppointmentDateAndAppointmentTime(doctor, date, time);
-        if (exists) {
+        if (!slotHoldService.claim(patientId, doctorId, date, time)) {
+            throw new IllegalStateException("This time slot is currently held by another patient");
+        }
+        if (!reserveSlot(doctorId, date, time)) {
             throw new IllegalStateException("Doctor already has an appointment at this time on " + date + " at " + time);
         }
         
@@ -222,7 +265,193 @@ public class AppointmentService {
                 .createdAt(LocalDateTime.now())
                 .build();
         
-        return appointmentRepository.save(appointment);
+        // The unique active_slot index is the final word when another instance booked the same slot
+        try {
+            return appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("Doctor already has an appointment at this time on " + date + " at " + time);
+        }
+    }
+    
+    /**
+     * Books many appointments in one transaction. Patients and doctors are resolved in bulk, existing
+     * bookings are checked with a single range query and the inserts go out as JDBC batches.
+     * Each item gets its own outcome; invalid or conflicting items do not stop the rest.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BookingResult> bookAppointments(List<BookingRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one booking is required");
+        }
+        if (requests.size() > MAX_BATCH_BOOKINGS) {
+            throw new IllegalArgumentException("A batch can contain at most " + MAX_BATCH_BOOKINGS + " bookings");
+        }
+        return bookWithRetry(requests, null, false);
+    }
+    
+    /**
+     * Expands a recurring series and books every occurrence through the batch path, so conflicts for
+     * the whole series come from one range query and the inserts share one transaction.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SeriesResult bookSeries(SeriesRequest request) {
+        if (request == null || request.startDate() == null) {
+            throw new IllegalArgumentException("Start date is required");
+        }
+        List<LocalDate> dates = RecurrenceRule.parse(request.rule())
+                .occurrences(request.startDate(), MAX_SERIES_OCCURRENCES, LocalDate.now().plusYears(MAX_SERIES_HORIZON_YEARS));
+        if (dates.isEmpty()) {
+            throw new IllegalArgumentException("Recurrence rule does not produce any appointments");
+        }
+        
+        List<BookingRequest> bookings = dates.stream()
+                .map(date -> new BookingRequest(request.patientId(), request.doctorId(), date, request.appointmentTime(), request.reason()))
+                .toList();
+        String seriesId = UUID.randomUUID().toString();
+        List<BookingResult> results = bookWithRetry(bookings, seriesId, request.allOrNothing());
+        
+        List<SeriesResult.Occurrence> occurrences = new ArrayList<>(results.size());
+        int booked = 0;
+        for (BookingResult result : results) {
+            if (result.outcome() == BookingResult.Outcome.BOOKED) {
+                booked++;
+            }
+            occurrences.add(new SeriesResult.Occurrence(dates.get(result.index()), result.outcome(), result.appointmentId(), result.message()));
+        }
+        return new SeriesResult(booked > 0 ? seriesId : null, booked, occurrences);
+    }
+    
+    /**
+     * Runs the batch in a transaction of its own. If another booking takes one of the slots between
+     * the range query and the flush, the unique index fails the whole flush. The batch then runs
+     * again in a fresh transaction, whose range query sees that booking and reports a conflict for
+     * that item alone. If slots keep being taken underneath, the items are booked one per transaction.
+     */
+    private List<BookingResult> bookWithRetry(List<BookingRequest> requests, String seriesId, boolean allOrNothing) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int attempt = 1; attempt <= MAX_BATCH_ATTEMPTS; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> bookAll(requests, seriesId, allOrNothing, status));
+            } catch (DataIntegrityViolationException e) {
+                System.out.println("⚠️ Batch booking lost a slot to a concurrent booking (attempt " + attempt + " of " + MAX_BATCH_ATTEMPTS + ")");
+            }
+        }
+        if (allOrNothing) {
+            throw new IllegalStateException("Slots kept being booked concurrently, no appointments from this request were saved");
+        }
+
+        List<BookingResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            BookingRequest request = requests.get(i);
+            BookingResult result;
+            try {
+                result = transactionTemplate.execute(status -> bookAll(List.of(request), seriesId, false, status)).get(0);
+            } catch (DataIntegrityViolationException e) {
+                result = BookingResult.conflict(0, "Doctor already has an appointment at this time on "
+                        + request.appointmentDate() + " at " + request.appointmentTime());
+            }
+            results.add(new BookingResult(i, result.outcome(), result.appointmentId(), result.message()));
+        }
+        return results;
+    }
+    
+    private List<BookingResult> bookAll(List<BookingRequest> requests, String seriesId, boolean allOrNothing,
+                                        TransactionStatus transaction) {
+        BookingResult[] results = new BookingResult[requests.size()];
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BookingRequest request = requests.get(i);
+            try {
+                validateBookingDetails(request.patientId(), request.doctorId(), request.appointmentDate(),
+                        request.appointmentTime(), request.reason());
+                candidates.add(i);
+            } catch (IllegalArgumentException e) {
+                results[i] = BookingResult.invalid(i, e.getMessage());
+            }
+        }
+        
+        List<Appointment> toInsert = new ArrayList<>();
+        List<Integer> insertedIndexes = new ArrayList<>();
+        if (!candidates.isEmpty()) {
+            Set<Long> patientIds = new HashSet<>();
+            Set<Long> doctorIds = new HashSet<>();
+            LocalDate from = null;
+            LocalDate to = null;
+            for (int i : candidates) {
+                BookingRequest request = requests.get(i);
+                patientIds.add(request.patientId());
+                doctorIds.add(request.doctorId());
+                from = from == null || request.appointmentDate().isBefore(from) ? request.appointmentDate() : from;
+                to = to == null || request.appointmentDate().isAfter(to) ? request.appointmentDate() : to;
+            }
+            
+            Map<Long, Patient> patients = patientRepository.findAllById(patientIds).stream()
+                    .collect(Collectors.toMap(Patient::getId, Function.identity()));
+            Map<Long, Doctor> doctors = doctorRepository.findAllById(doctorIds).stream()
+                    .collect(Collectors.toMap(Doctor::getId, Function.identity()));
+            Set<String> taken = appointmentRepository.findBookedSlots(doctorIds, from, to, AppointmentStatus.RELEASED).stream()
+                    .map(slot -> Appointment.slotKey(slot.doctorId(), slot.appointmentDate(), slot.appointmentTime()))
+                    .collect(Collectors.toCollection(HashSet::new));
+            
+            for (int i : candidates) {
+                BookingRequest request = requests.get(i);
+                Patient patient = patients.get(request.patientId());
+                Doctor doctor = doctors.get(request.doctorId());
+                if (patient == null) {
+                    results[i] = BookingResult.invalid(i, "Patient not found with ID: " + request.patientId());
+                    continue;
+                }
+                if (doctor == null) {
+                    results[i] = BookingResult.invalid(i, "Doctor not found with ID: " + request.doctorId());
+                    continue;
+                }
+                
+                if (!slotHoldService.claim(patient.getId(), doctor.getId(), request.appointmentDate(), request.appointmentTime())) {
+                    results[i] = BookingResult.conflict(i, "This time slot is currently held by another patient");
+                    continue;
+                }
+                
+                // 'taken' also catches duplicates inside the batch itself
+                String key = Appointment.slotKey(doctor.getId(), request.appointmentDate(), request.appointmentTime());
+                if (!taken.add(key) || (slotOccupancyIndex.isReady()
+                        && !slotOccupancyIndex.tryOccupy(doctor.getId(), request.appointmentDate(), request.appointmentTime()))) {
+                    results[i] = BookingResult.conflict(i, "Doctor already has an appointment at this time on "
+                            + request.appointmentDate() + " at " + request.appointmentTime());
+                    continue;
+                }
+                
+                toInsert.add(Appointment.builder()
+                        .patient(patient)
+                        .doctor(doctor)
+                        .appointmentDate(request.appointmentDate())
+                        .appointmentTime(request.appointmentTime())
+                        .reason(request.reason().trim())
+                        .status(AppointmentStatus.SCHEDULED)
+                        .createdAt(LocalDateTime.now())
+                        .seriesId(seriesId)
+                        .build());
+                insertedIndexes.add(i);
+            }
+        }
+        
+        if (allOrNothing && insertedIndexes.size() < requests.size()) {
+            // Rolling back undoes the occupancy claims made above; nothing has been inserted yet
+            transaction.setRollbackOnly();
+            for (int i : insertedIndexes) {
+                results[i] = BookingResult.skipped(i);
+            }
+            return Arrays.asList(results);
+        }
+        
+        // Another instance may have taken one of the slots since the range query; see bookWithRetry
+        appointmentRepository.saveAllAndFlush(toInsert);
+        
+        for (int n = 0; n < toInsert.size(); n++) {
+            int i = insertedIndexes.get(n);
+            results[i] = BookingResult.booked(i, toInsert.get(n).getId());
+        }
+        System.out.println("📦 Batch booking: " + toInsert.size() + " of " + requests.size() + " appointments booked");
+        return Arrays.asList(results);
     }
     
     public List<Appointment> getByPatientId(Long patientId) {
@@ -241,9 +470,16 @@ public class AppointmentService {
             throw new IllegalArgumentException("Appointment ID and status are required");
         }
         
-        Appointment appointment = appointmentRepository.findById(id)
+        Appointment appointment = appointmentRepository.findWithPartiesById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Appointment not found with ID: " + id));
         
+        AppointmentStatus previous = appointment.getStatus();
+        if (previous != null && previous.holdsSlot() && !status.holdsSlot()) {
+            releaseSlot(appointment);
+        } else if ((previous == null || !previous.holdsSlot()) && status.holdsSlot() && appointment.getAppointmentTime() != null) {
+            slotOccupancyIndex.occupy(appointment.getDoctor().getId(), appointment.getAppointmentDate(), appointment.getAppointmentTime());
+        }
+        
         appointment.setStatus(status);
         return appointmentRepository.save(appointment);
     }
@@ -261,7 +497,75 @@ public class AppointmentService {
     
     // Admin can see all appointments
     public List<Appointment> getAllAppointments() {
-        return appointmentRepository.findAll();
+        return appointmentRepository.findAllWithParties();
+    }
+    
+    // Read-only list views as flat projections; see AppointmentRepository#findAllDtos
+    @Transactional(readOnly = true)
+    public List<AppointmentDto> listAll() {
+        return appointmentRepository.findAllDtos();
+    }
+    
+    @Transactional(readOnly = true)
+    public List<AppointmentDto> listByDoctor(Long doctorId) {
+        if (doctorId == null) {
+            throw new IllegalArgumentException("Doctor ID cannot be null");
+        }
+        if (!doctorRepository.existsById(doctorId)) {
+            throw new IllegalArgumentException("Doctor not found with ID: " + doctorId);
+        }
+        return appointmentRepository.findDtosByDoctorId(doctorId);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<AppointmentDto> listByPatient(Long patientId) {
+        if (patientId == null) {
+            throw new IllegalArgumentException("Patient ID cannot be null");
+        }
+        if (!patientRepository.existsById(patientId)) {
+            throw new IllegalArgumentException("Patient not found with ID: " + patientId);
+        }
+        return appointmentRepository.findDtosByPatientId(patientId);
+    }
+    
+    /**
+     * One keyset page of appointments ordered by (date, time, id), optionally restricted to a doctor or
+     * patient. Each page starts with an index seek just past the cursor instead of skipping an OFFSET,
+     * so deep pages cost no more than shallow ones as long as the filters match the index prefix; a
+     * status filter is checked row by row and can read past non-matching rows. Fetches one row more
+     * than asked for to know whether another page follows.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AppointmentDto> findPage(Long doctorId, Long patientId, AppointmentPageQuery query) {
+        int size = query.size() != null ? query.size() : DEFAULT_PAGE_SIZE;
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (doctorId != null && !doctorRepository.existsById(doctorId)) {
+            throw new IllegalArgumentException("Doctor not found with ID: " + doctorId);
+        }
+        if (patientId != null && !patientRepository.existsById(patientId)) {
+            throw new IllegalArgumentException("Patient not found with ID: " + patientId);
+        }
+        AppointmentCursor after = query.cursor() != null && !query.cursor().isBlank()
+                ? AppointmentCursor.decode(query.cursor()) : null;
+        
+        Specification<Appointment> filter = Specification.where(AppointmentSpecifications.scheduled())
+                .and(AppointmentSpecifications.forDoctor(doctorId))
+                .and(AppointmentSpecifications.forPatient(patientId))
+                .and(AppointmentSpecifications.hasStatus(query.status()))
+                .and(AppointmentSpecifications.onOrAfter(query.from()))
+                .and(AppointmentSpecifications.onOrBefore(query.to()))
+                .and(AppointmentSpecifications.after(after, query.isDescending()));
+        List<AppointmentDto> rows = appointmentRepository.findPage(filter, query.isDescending(), size + 1);
+        
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<AppointmentDto> items = new ArrayList<>(rows.subList(0, size));
+        AppointmentDto last = items.get(size - 1);
+        String next = new AppointmentCursor(last.appointmentDate(), last.appointmentTime(), last.id()).encode();
+        return new CursorPage<>(items, next);
     }
     
     // Get appointments based on user role
@@ -285,7 +589,7 @@ public class AppointmentService {
             throw new IllegalArgumentException("Appointment ID cannot be null");
         }
         
-        return appointmentRepository.findById(id)
+        return appointmentRepository.findWithPartiesById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Appointment not found with ID: " + id));
     }
     
@@ -296,15 +600,16 @@ public class AppointmentService {
             throw new IllegalStateException("Cannot cancel a completed appointment");
         }
         
+        releaseSlot(appointment);
         appointment.setStatus(AppointmentStatus.CANCELLED);
         appointmentRepository.save(appointment);
     }
     
     public void deleteAppointment(Long id) {
-        if (!appointmentRepository.existsById(id)) {
-            throw new IllegalArgumentException("Appointment not found with ID: " + id);
-        }
-        appointmentRepository.deleteById(id);
+        Appointment appointment = appointmentRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Appointment not found with ID: " + id));
+        releaseSlot(appointment);
+        appointmentRepository.delete(appointment);
     }
     
     public List<Appointment> getAppointmentsByDateRange(LocalDate startDate, LocalDate endDate) {
@@ -318,4 +623,40 @@ public class AppointmentService {
         
         return appointmentRepository.findByAppointmentDateBetween(startDate, endDate);
     }
+    
+    // Claims the slot in the occupancy index; only queries the table while the index is still loading
+    private boolean reserveSlot(Long doctorId, LocalDate date, LocalTime time) {
+        if (slotOccupancyIndex.isReady()) {
+            return slotOccupancyIndex.tryOccupy(doctorId, date, time);
+        }
+        return !appointmentRepository.existsByDoctorIdAndAppointmentDateAndAppointmentTimeAndStatusNotIn(
+                doctorId, date, time, AppointmentStatus.RELEASED);
+    }
+    
+    private void releaseSlot(Appointment appointment) {
+        if (appointment.getStatus() != null && appointment.getStatus().holdsSlot()) {
+            releaseSlot(appointment.getDoctor().getId(), appointment.getAppointmentDate(), appointment.getAppointmentTime());
+        }
+    }
+    
+    private void releaseSlot(Long doctorId, LocalDate date, LocalTime time) {
+        if (time != null) {
+            slotOccupancyIndex.release(doctorId, date, time);
+            eventPublisher.publishEvent(new SlotReleasedEvent(doctorId, date, time));
+        }
+    }
+    
+    private void validateBookingDetails(Long patientId, Long doctorId, LocalDate date, LocalTime time, String reason) {
+        if (patientId == null || doctorId == null || date == null || time == null || reason == null || reason.trim().isEmpty()) {
+            throw new IllegalArgumentException("All appointment details are required");
+        }
+        
+        if (date.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Cannot book appointment for past dates");
+        }
+        
+        if (date.equals(LocalDate.now()) && time.isBefore(LocalTime.now())) {
+            throw new IllegalArgumentException("Cannot book appointment for past time today");
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,217 @@
+package com.examly.springapp.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.examly.springapp.dto.AvailableSlot;
+import com.examly.springapp.dto.BookedSlot;
+import com.examly.springapp.dto.DoctorFreeSlots;
+import com.examly.springapp.dto.DoctorSummary;
+import com.examly.springapp.model.Appointment;
+import com.examly.springapp.model.AppointmentStatus;
+import com.examly.springapp.model.Doctor.ProfileStatus;
+import com.examly.springapp.model.DoctorAvailability;
+import com.examly.springapp.repository.AppointmentRepository;
+import com.examly.springapp.repository.DoctorAvailabilityRepository;
+import com.examly.springapp.repository.DoctorRepository;
+
+/**
+ * Works out free slots by laying the weekly availability template over the booked appointments
+ * of a date window. Everything is computed in memory from set-based queries.
+ */
+@Service
+@Transactional(readOnly = true)
+public class AvailabilityService {
+
+    public static final int MAX_WINDOW_DAYS = 90;
+    public static final int MAX_RESULTS = 100;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private DoctorAvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    // Keeps IN lists well below driver/database limits when thousands of doctors match
+    @Value("${availability.search.id-chunk-size:1000}")
+    private int idChunkSize;
+
+    /**
+     * Earliest free slots for one doctor, using one availability load and one range query.
+     */
+    public List<AvailableSlot> findNextAvailable(Long doctorId, LocalDate from, int days, int limit) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        validateWindow(start, days, limit);
+        LocalDate end = start.plusDays(days - 1L);
+
+        Map<DayOfWeek, TreeSet<LocalTime>> template = weeklyTemplate(
+                availabilityRepository.findActiveWithSlotsByDoctorIds(List.of(doctorId)));
+        if (template.isEmpty()) {
+            return List.of();
+        }
+        Set<String> taken = takenSlots(appointmentRepository.findBookedSlots(
+                List.of(doctorId), start, end, AppointmentStatus.RELEASED));
+
+        return freeSlots(doctorId, template, taken, start, end, null, null, limit);
+    }
+
+    // Whether the doctor's weekly template has this slot at all, booked or not
+    public boolean offersSlot(Long doctorId, LocalDate date, LocalTime time) {
+        TreeSet<LocalTime> daySlots = weeklyTemplate(availabilityRepository.findActiveWithSlotsByDoctorIds(List.of(doctorId)))
+                .get(date.getDayOfWeek());
+        return daySlots != null && daySlots.contains(time);
+    }
+
+    /**
+     * Active doctors matching the filters that have at least one free slot in the window, ranked by
+     * their earliest free slot. Uses one doctor query plus one availability and one booking query per
+     * chunk of doctor ids, never a query per doctor.
+     */
+    public List<DoctorFreeSlots> searchFreeSlots(String specialization, String clinicName, LocalDate from, LocalDate to,
+                                                 LocalTime windowStart, LocalTime windowEnd, int limit, int slotsPerDoctor) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start;
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("End date cannot be before start date");
+        }
+        validateWindow(start, (int) (end.toEpochDay() - start.toEpochDay()) + 1, limit);
+        if (slotsPerDoctor < 1 || slotsPerDoctor > MAX_RESULTS) {
+            throw new IllegalArgumentException("Slots per doctor must be between 1 and " + MAX_RESULTS);
+        }
+        if (windowStart != null && windowEnd != null && !windowStart.isBefore(windowEnd)) {
+            throw new IllegalArgumentException("Start time must be before end time");
+        }
+
+        List<DoctorSummary> doctors = doctorRepository.findSummaries(blankToNull(specialization), blankToNull(clinicName), ProfileStatus.ACTIVE);
+        List<DoctorFreeSlots> results = new ArrayList<>();
+        for (int offset = 0; offset < doctors.size(); offset += idChunkSize) {
+            List<DoctorSummary> chunk = doctors.subList(offset, Math.min(offset + idChunkSize, doctors.size()));
+            List<Long> ids = chunk.stream().map(DoctorSummary::id).toList();
+
+            Map<Long, List<DoctorAvailability>> availabilityByDoctor = new HashMap<>();
+            for (DoctorAvailability availability : availabilityRepository.findActiveWithSlotsByDoctorIds(ids)) {
+                availabilityByDoctor.computeIfAbsent(availability.getDoctor().getId(), id -> new ArrayList<>()).add(availability);
+            }
+            if (availabilityByDoctor.isEmpty()) {
+                continue;
+            }
+            Set<String> taken = takenSlots(appointmentRepository.findBookedSlots(
+                    availabilityByDoctor.keySet(), start, end, AppointmentStatus.RELEASED));
+
+            for (DoctorSummary doctor : chunk) {
+                List<DoctorAvailability> availability = availabilityByDoctor.get(doctor.id());
+                if (availability == null) {
+                    continue;
+                }
+                List<AvailableSlot> free = freeSlots(doctor.id(), weeklyTemplate(availability), taken,
+                        start, end, windowStart, windowEnd, slotsPerDoctor);
+                if (!free.isEmpty()) {
+                    results.add(new DoctorFreeSlots(doctor, free));
+                }
+            }
+        }
+
+        results.sort(Comparator
+                .comparing((DoctorFreeSlots r) -> r.slots().get(0).date())
+                .thenComparing(r -> r.slots().get(0).time())
+                .thenComparing(r -> r.doctor().name(), Comparator.nullsLast(Comparator.naturalOrder())));
+        return results.size() > limit ? new ArrayList<>(results.subList(0, limit)) : results;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
+    void validateWindow(LocalDate start, int days, int limit) {
+        if (start.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Start date cannot be in the past");
+        }
+        if (days < 1 || days > MAX_WINDOW_DAYS) {
+            throw new IllegalArgumentException("Days must be between 1 and " + MAX_WINDOW_DAYS);
+        }
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_RESULTS);
+        }
+    }
+
+    // Weekly template of one doctor: day of week -> sorted slot start times
+    Map<DayOfWeek, TreeSet<LocalTime>> weeklyTemplate(Collection<DoctorAvailability> availability) {
+        Map<DayOfWeek, TreeSet<LocalTime>> template = new EnumMap<>(DayOfWeek.class);
+        for (DoctorAvailability day : availability) {
+            DayOfWeek dayOfWeek;
+            try {
+                dayOfWeek = DayOfWeek.valueOf(day.getDayOfWeek().trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            for (String slot : day.getTimeSlots()) {
+                try {
+                    template.computeIfAbsent(dayOfWeek, d -> new TreeSet<>()).add(LocalTime.parse(slot.trim()));
+                } catch (DateTimeParseException e) {
+                    System.out.println("⚠️ Skipping malformed time slot '" + slot + "' for availability " + day.getId());
+                }
+            }
+        }
+        return template;
+    }
+
+    Set<String> takenSlots(Collection<BookedSlot> booked) {
+        Set<String> taken = new HashSet<>();
+        for (BookedSlot slot : booked) {
+            taken.add(Appointment.slotKey(slot.doctorId(), slot.appointmentDate(), slot.appointmentTime()));
+        }
+        return taken;
+    }
+
+    /**
+     * Walks the window day by day in time order and collects up to {@code limit} free slots,
+     * optionally restricted to [windowStart, windowEnd) within each day.
+     */
+    List<AvailableSlot> freeSlots(Long doctorId, Map<DayOfWeek, TreeSet<LocalTime>> template, Set<String> taken,
+                                  LocalDate start, LocalDate end, LocalTime windowStart, LocalTime windowEnd, int limit) {
+        List<AvailableSlot> free = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (LocalDate date = start; !date.isAfter(end) && free.size() < limit; date = date.plusDays(1)) {
+            TreeSet<LocalTime> daySlots = template.get(date.getDayOfWeek());
+            if (daySlots == null) {
+                continue;
+            }
+            Collection<LocalTime> candidates = daySlots;
+            if (windowStart != null || windowEnd != null) {
+                candidates = daySlots.subSet(windowStart != null ? windowStart : LocalTime.MIN, true,
+                        windowEnd != null ? windowEnd : LocalTime.MAX, false);
+            }
+            for (LocalTime time : candidates) {
+                if (free.size() >= limit) {
+                    break;
+                }
+                if (!date.atTime(time).isAfter(now) || taken.contains(Appointment.slotKey(doctorId, date, time))) {
+                    continue;
+                }
+                free.add(new AvailableSlot(date, time));
+            }
+        }
+        return free;
+    }
+}
@@ -0,0 +1,171 @@
+package com.examly.springapp.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.examly.springapp.model.Doctor;
+
+/**
+ * Read-through cache for the doctor lookups behind GET /api/doctors, /{id} and /{id}/profile.
+ * Doctors are kept in an LRU map bounded by {@code doctors.cache.max-entries}; the email index
+ * only points into it, and the full list is kept as long as it fits within the same bound.
+ *
+ * Entries are dropped per {@link DoctorChangedEvent} after commit, whichever path wrote the row
+ * (see {@link DoctorCacheInvalidator}). A load that was started before an invalidation is not
+ * stored, so a slow read can never put back the state a write replaced.
+ *
+ * The cache keeps detached copies and hands out a fresh copy on every hit: callers get an ordinary
+ * mutable Doctor, and whatever they do with it never reaches other readers.
+ */
+@Component
+public class DoctorCache {
+
+    public static final int MAX_ENTRIES_LIMIT = 100_000;
+
+    private final int maxEntries;
+
+    // All guarded by this
+    private final LinkedHashMap<Long, Doctor> byId;
+    private final Map<String, Long> idsByEmail = new HashMap<>();
+    private List<Doctor> all;
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public DoctorCache(@Value("${doctors.cache.max-entries:1000}") int maxEntries) {
+        if (maxEntries < 1 || maxEntries > MAX_ENTRIES_LIMIT) {
+            throw new IllegalArgumentException("doctors.cache.max-entries must be between 1 and " + MAX_ENTRIES_LIMIT);
+        }
+        this.maxEntries = maxEntries;
+        this.byId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Doctor> eldest) {
+                if (size() <= DoctorCache.this.maxEntries) {
+                    return false;
+                }
+                evictions++;
+                idsByEmail.remove(eldest.getValue().getEmail(), eldest.getKey());
+                return true;
+            }
+        };
+    }
+
+    public Doctor getById(Long id, Supplier<Doctor> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Doctor cached = byId.get(id);
+            if (cached != null) {
+                hits++;
+                return copy(cached);
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+        Doctor loaded = loader.get();
+        store(loaded, loadGeneration);
+        return loaded;
+    }
+
+    public Doctor getByEmail(String email, Supplier<Doctor> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Long id = idsByEmail.get(email);
+            Doctor cached = id != null ? byId.get(id) : null;
+            if (cached != null) {
+                hits++;
+                return copy(cached);
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+        Doctor loaded = loader.get();
+        store(loaded, loadGeneration);
+        return loaded;
+    }
+
+    public List<Doctor> getAll(Supplier<List<Doctor>> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            if (all != null) {
+                hits++;
+                return copies(all);
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+        List<Doctor> loaded = loader.get();
+        synchronized (this) {
+            if (generation == loadGeneration && loaded.size() <= maxEntries) {
+                all = copies(loaded);
+            }
+        }
+        return loaded;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDoctorChanged(DoctorChangedEvent event) {
+        generation++;
+        all = null;
+        Doctor previous = byId.remove(event.doctorId());
+        if (previous != null) {
+            idsByEmail.remove(previous.getEmail(), event.doctorId());
+        }
+        // The email may have moved between doctors; drop whatever the new address pointed to
+        if (!event.isDeleted() && event.doctor().getEmail() != null) {
+            Long other = idsByEmail.remove(event.doctor().getEmail());
+            if (other != null) {
+                byId.remove(other);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        all = null;
+        byId.clear();
+        idsByEmail.clear();
+    }
+
+    public synchronized Stats getStats() {
+        long requests = hits + misses;
+        return new Stats(hits, misses, requests == 0 ? 0.0 : (double) hits / requests, evictions,
+                byId.size(), maxEntries, all != null);
+    }
+
+    private synchronized void store(Doctor doctor, long loadGeneration) {
+        if (doctor == null || doctor.getId() == null || generation != loadGeneration) {
+            return;
+        }
+        byId.put(doctor.getId(), copy(doctor));
+        if (doctor.getEmail() != null) {
+            idsByEmail.put(doctor.getEmail(), doctor.getId());
+        }
+    }
+
+    private static Doctor copy(Doctor doctor) {
+        return doctor.toBuilder().build();
+    }
+
+    private static List<Doctor> copies(List<Doctor> doctors) {
+        return doctors.stream().map(DoctorCache::copy).toList();
+    }
+
+    public record Stats(
+            long hits,
+            long misses,
+            double hitRate,
+            long evictions,
+            int size,
+            int maxEntries,
+            boolean allDoctorsCached
+    ) {
+    }
+}
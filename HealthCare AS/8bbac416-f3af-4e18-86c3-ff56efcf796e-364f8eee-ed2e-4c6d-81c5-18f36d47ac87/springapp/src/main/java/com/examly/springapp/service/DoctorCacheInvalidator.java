@@ -0,0 +1,35 @@
+package com.examly.springapp.service;
+
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import com.examly.springapp.model.Doctor;
+
+/**
+ * Entity listener that invalidates {@link DoctorCache} for doctor writes that bypass
+ * {@link DoctorService}: the startup seed data, repository calls such as deleteAll, and anything
+ * added later. Bulk JPQL updates do not fire entity callbacks and have to invalidate explicitly.
+ * Registered on Doctor in META-INF/orm.xml, so the model does not depend on the service layer.
+ */
+@Component
+public class DoctorCacheInvalidator {
+
+    private final DoctorCache doctorCache;
+
+    // Lazy: Hibernate asks for listeners while the EntityManagerFactory is still being built
+    public DoctorCacheInvalidator(@Lazy DoctorCache doctorCache) {
+        this.doctorCache = doctorCache;
+    }
+
+    // post-persist and post-update, see orm.xml
+    void onSaved(Doctor doctor) {
+        DoctorChangedEvent event = DoctorChangedEvent.saved(doctor);
+        TransactionCallbacks.afterCommit(() -> doctorCache.onDoctorChanged(event));
+    }
+
+    // post-remove, see orm.xml
+    void onRemoved(Doctor doctor) {
+        DoctorChangedEvent event = DoctorChangedEvent.deleted(doctor.getId());
+        TransactionCallbacks.afterCommit(() -> doctorCache.onDoctorChanged(event));
+    }
+}
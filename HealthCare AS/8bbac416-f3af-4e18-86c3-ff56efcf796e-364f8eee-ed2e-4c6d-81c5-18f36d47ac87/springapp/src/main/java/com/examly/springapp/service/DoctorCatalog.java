@@ -0,0 +1,146 @@
+package com.examly.springapp.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.examly.springapp.dto.DoctorSummary;
+import com.examly.springapp.model.Doctor;
+import com.examly.springapp.model.Doctor.ProfileStatus;
+import com.examly.springapp.repository.DoctorRepository;
+
+/**
+ * Specializations and clinics offered by active doctors, with how many doctors offer each. The
+ * counts are adjusted per {@link DoctorChangedEvent} after commit and published as an immutable
+ * snapshot, so readers never lock and never go to the database once the catalog is loaded.
+ */
+@Component
+public class DoctorCatalog {
+
+    private final DoctorRepository doctorRepository;
+
+    // Guarded by this; only writers touch them
+    private final Map<Long, Listing> listings = new HashMap<>();
+    private final Map<String, Integer> specializationCounts = new HashMap<>();
+    private final Map<String, Integer> clinicCounts = new HashMap<>();
+
+    private volatile Snapshot snapshot = new Snapshot(List.of(), List.of());
+    private volatile boolean ready = false;
+
+    public DoctorCatalog(DoctorRepository doctorRepository) {
+        this.doctorRepository = doctorRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        ready = false;
+        listings.clear();
+        specializationCounts.clear();
+        clinicCounts.clear();
+        List<DoctorSummary> active = doctorRepository.findSummaries(null, null, ProfileStatus.ACTIVE);
+        for (DoctorSummary doctor : active) {
+            add(doctor.id(), new Listing(clean(doctor.specialization()), clean(doctor.clinicName())));
+        }
+        snapshot = publish();
+        ready = true;
+        System.out.println("✅ Doctor catalog loaded with " + snapshot.specializations().size() + " specializations and "
+                + snapshot.clinics().size() + " clinics");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDoctorChanged(DoctorChangedEvent event) {
+        Listing before = listings.get(event.doctorId());
+        Doctor doctor = event.doctor();
+        Listing after = !event.isDeleted() && doctor.getStatus() == ProfileStatus.ACTIVE
+                ? new Listing(clean(doctor.getSpecialization()), clean(doctor.getClinicName()))
+                : null;
+        if (before == null ? after == null : before.equals(after)) {
+            return; // e.g. a phone number change; the published snapshot stays as it is
+        }
+        if (before != null) {
+            remove(event.doctorId(), before);
+        }
+        if (after != null) {
+            add(event.doctorId(), after);
+        }
+        snapshot = publish();
+    }
+
+    /**
+     * The current catalog. Until the startup load finishes it is computed from the database.
+     */
+    public Snapshot getSnapshot() {
+        if (ready) {
+            return snapshot;
+        }
+        Map<String, Integer> specializations = new HashMap<>();
+        Map<String, Integer> clinics = new HashMap<>();
+        for (DoctorSummary doctor : doctorRepository.findSummaries(null, null, ProfileStatus.ACTIVE)) {
+            increment(specializations, clean(doctor.specialization()));
+            increment(clinics, clean(doctor.clinicName()));
+        }
+        return new Snapshot(entries(specializations), entries(clinics));
+    }
+
+    public List<String> getSpecializationNames() {
+        return getSnapshot().specializations().stream().map(CatalogEntry::name).toList();
+    }
+
+    private void add(Long doctorId, Listing listing) {
+        listings.put(doctorId, listing);
+        increment(specializationCounts, listing.specialization());
+        increment(clinicCounts, listing.clinicName());
+    }
+
+    private void remove(Long doctorId, Listing listing) {
+        listings.remove(doctorId);
+        decrement(specializationCounts, listing.specialization());
+        decrement(clinicCounts, listing.clinicName());
+    }
+
+    private Snapshot publish() {
+        return new Snapshot(entries(specializationCounts), entries(clinicCounts));
+    }
+
+    private static void increment(Map<String, Integer> counts, String name) {
+        if (name != null) {
+            counts.merge(name, 1, Integer::sum);
+        }
+    }
+
+    private static void decrement(Map<String, Integer> counts, String name) {
+        if (name != null) {
+            counts.computeIfPresent(name, (n, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    // Alphabetical, so the dropdowns do not reorder when counts change
+    private static List<CatalogEntry> entries(Map<String, Integer> counts) {
+        List<CatalogEntry> entries = new ArrayList<>(counts.size());
+        counts.forEach((name, count) -> entries.add(new CatalogEntry(name, count)));
+        entries.sort(Comparator.comparing(CatalogEntry::name, String.CASE_INSENSITIVE_ORDER));
+        return List.copyOf(entries);
+    }
+
+    private static String clean(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
+    private record Listing(String specialization, String clinicName) {
+    }
+
+    public record CatalogEntry(String name, int doctorCount) {
+    }
+
+    public record Snapshot(List<CatalogEntry> specializations, List<CatalogEntry> clinics) {
+    }
+}
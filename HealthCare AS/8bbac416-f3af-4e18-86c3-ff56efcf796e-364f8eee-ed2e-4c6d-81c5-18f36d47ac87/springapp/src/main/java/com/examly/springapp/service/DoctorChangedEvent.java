@@ -0,0 +1,23 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.Doctor;
+
+/**
+ * Published by every {@link DoctorService} write. {@code doctor} is the state as saved, or null
+ * when the doctor was deleted. Listeners that use the transactional phase only see it once the
+ * change is committed.
+ */
+public record DoctorChangedEvent(Long doctorId, Doctor doctor) {
+
+    public static DoctorChangedEvent saved(Doctor doctor) {
+        return new DoctorChangedEvent(doctor.getId(), doctor);
+    }
+
+    public static DoctorChangedEvent deleted(Long doctorId) {
+        return new DoctorChangedEvent(doctorId, null);
+    }
+
+    public boolean isDeleted() {
+        return doctor == null;
+    }
+}
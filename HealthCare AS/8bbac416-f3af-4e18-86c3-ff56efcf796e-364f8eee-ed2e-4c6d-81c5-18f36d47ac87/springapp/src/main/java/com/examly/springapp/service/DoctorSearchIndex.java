@@ -0,0 +1,302 @@
+package com.examly.springapp.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.examly.springapp.dto.DoctorSummary;
+import com.examly.springapp.model.Doctor;
+import com.examly.springapp.model.Doctor.ProfileStatus;
+import com.examly.springapp.repository.DoctorRepository;
+
+/**
+ * In-memory inverted index over active doctors for the search box. Every word of name,
+ * specialization, clinic name, qualifications and bio maps to the doctors containing it, so a
+ * prefix lookup is a range scan over a sorted term dictionary. Typos are handled by a bigram
+ * index over the terms: only terms sharing enough bigrams with the query word are compared by
+ * edit distance.
+ *
+ * The index is loaded at startup and then kept current from {@link DoctorChangedEvent}s after
+ * commit, so suggestions never go to the database once it is ready.
+ */
+@Component
+public class DoctorSearchIndex {
+
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private static final int MAX_QUERY_WORDS = 5;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    // Where a word was found decides how much a match counts
+    private static final int NAME_WEIGHT = 8;
+    private static final int SPECIALIZATION_WEIGHT = 6;
+    private static final int CLINIC_WEIGHT = 4;
+    private static final int QUALIFICATIONS_WEIGHT = 2;
+    private static final int BIO_WEIGHT = 1;
+
+    private final DoctorRepository doctorRepository;
+
+    private final Map<Long, IndexedDoctor> doctors = new ConcurrentHashMap<>();
+    // term -> doctor id -> best field weight of that term for the doctor
+    private final ConcurrentSkipListMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+    // bigram (with a leading '^' marking the word start) -> terms containing it
+    private final Map<String, Set<String>> termsByBigram = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+
+    public DoctorSearchIndex(DoctorRepository doctorRepository) {
+        this.doctorRepository = doctorRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        ready = false;
+        doctors.clear();
+        postings.clear();
+        termsByBigram.clear();
+        List<Doctor> active = doctorRepository.findByStatus(ProfileStatus.ACTIVE);
+        active.forEach(this::add);
+        ready = true;
+        System.out.println("✅ Doctor search index loaded with " + active.size() + " doctors and " + postings.size() + " terms");
+    }
+
+    // Until the startup load finishes callers must fall back to the database
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDoctorChanged(DoctorChangedEvent event) {
+        remove(event.doctorId());
+        if (!event.isDeleted() && event.doctor().getStatus() == ProfileStatus.ACTIVE) {
+            add(event.doctor());
+        }
+    }
+
+    /**
+     * Active doctors matching every word of the query, best match first. Each word matches as a
+     * prefix of an indexed word; words of four or more letters also match with one typo (two from
+     * eight letters on).
+     */
+    public List<DoctorSummary> suggest(String query, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        List<String> words = tokenize(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        if (!ready) {
+            return doctorRepository.searchSummaries(words.get(0), ProfileStatus.ACTIVE, PageRequest.of(0, limit));
+        }
+
+        Map<Long, Double> scores = null;
+        for (String word : words.subList(0, Math.min(words.size(), MAX_QUERY_WORDS))) {
+            Map<Long, Double> wordScores = match(word);
+            if (scores == null) {
+                scores = wordScores;
+            } else {
+                Map<Long, Double> both = new HashMap<>();
+                for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                    Double other = wordScores.get(entry.getKey());
+                    if (other != null) {
+                        both.put(entry.getKey(), entry.getValue() + other);
+                    }
+                }
+                scores = both;
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<IndexedDoctor> ranked = new ArrayList<>();
+        for (Long id : scores.keySet()) {
+            IndexedDoctor doctor = doctors.get(id);
+            if (doctor != null) {
+                ranked.add(doctor);
+            }
+        }
+        Map<Long, Double> finalScores = scores;
+        ranked.sort(Comparator
+                .comparing((IndexedDoctor d) -> finalScores.get(d.summary().id()), Comparator.reverseOrder())
+                .thenComparing(d -> d.summary().name(), Comparator.nullsLast(Comparator.naturalOrder())));
+        return ranked.stream().limit(limit).map(IndexedDoctor::summary).toList();
+    }
+
+    // Doctor id -> best score of the word against any of the doctor's terms
+    private Map<Long, Double> match(String word) {
+        Map<Long, Double> scores = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Integer>> term : postings.subMap(word, true, word + Character.MAX_VALUE, false).entrySet()) {
+            double factor = term.getKey().length() == word.length() ? 1.0 : 0.8;
+            collect(scores, term.getValue(), factor);
+        }
+        if (word.length() < MIN_FUZZY_LENGTH) {
+            return scores;
+        }
+
+        int maxEdits = word.length() >= 8 ? 2 : 1;
+        Set<String> wordBigrams = new LinkedHashSet<>(bigrams(word));
+        // Each edit destroys at most two bigrams of the word
+        int required = Math.max(1, wordBigrams.size() - 2 * maxEdits);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String bigram : wordBigrams) {
+            for (String term : termsByBigram.getOrDefault(bigram, Set.of())) {
+                shared.merge(term, 1, Integer::sum);
+            }
+        }
+        for (Map.Entry<String, Integer> candidate : shared.entrySet()) {
+            String term = candidate.getKey();
+            if (candidate.getValue() < required || term.startsWith(word)) {
+                continue;
+            }
+            int edits = prefixDistance(word, term, maxEdits);
+            if (edits <= maxEdits) {
+                Map<Long, Integer> ids = postings.get(term);
+                if (ids != null) {
+                    collect(scores, ids, edits == 1 ? 0.5 : 0.3);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static void collect(Map<Long, Double> scores, Map<Long, Integer> ids, double factor) {
+        for (Map.Entry<Long, Integer> posting : ids.entrySet()) {
+            scores.merge(posting.getKey(), posting.getValue() * factor, Math::max);
+        }
+    }
+
+    /**
+     * Smallest edit distance (insert, delete, substitute, swap of neighbours) between the word and
+     * any prefix of the term, capped at maxEdits + 1. Only prefixes up to maxEdits longer than the
+     * word can be within reach, so the table stays a few columns wide.
+     */
+    static int prefixDistance(String word, String term, int maxEdits) {
+        int columns = Math.min(term.length(), word.length() + maxEdits);
+        int[] beforePrevious = new int[columns + 1];
+        int[] previous = new int[columns + 1];
+        int[] current = new int[columns + 1];
+        for (int j = 0; j <= columns; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= word.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= columns; j++) {
+                int cost = word.charAt(i - 1) == term.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && word.charAt(i - 1) == term.charAt(j - 2) && word.charAt(i - 2) == term.charAt(j - 1)) {
+                    value = Math.min(value, beforePrevious[j - 2] + 1);
+                }
+                current[j] = value;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        int best = maxEdits + 1;
+        for (int j = 0; j <= columns; j++) {
+            best = Math.min(best, previous[j]);
+        }
+        return best;
+    }
+
+    private void add(Doctor doctor) {
+        Map<String, Integer> terms = new LinkedHashMap<>();
+        addTerms(terms, doctor.getName(), NAME_WEIGHT);
+        addTerms(terms, doctor.getSpecialization(), SPECIALIZATION_WEIGHT);
+        addTerms(terms, doctor.getClinicName(), CLINIC_WEIGHT);
+        addTerms(terms, doctor.getQualifications(), QUALIFICATIONS_WEIGHT);
+        addTerms(terms, doctor.getBio(), BIO_WEIGHT);
+
+        IndexedDoctor indexed = new IndexedDoctor(
+                new DoctorSummary(doctor.getId(), doctor.getName(), doctor.getSpecialization(), doctor.getClinicName()),
+                terms.keySet());
+        doctors.put(doctor.getId(), indexed);
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), t -> {
+                for (String bigram : bigrams(t)) {
+                    termsByBigram.computeIfAbsent(bigram, b -> ConcurrentHashMap.newKeySet()).add(t);
+                }
+                return new ConcurrentHashMap<>();
+            }).put(doctor.getId(), term.getValue());
+        }
+    }
+
+    private void remove(Long doctorId) {
+        IndexedDoctor indexed = doctors.remove(doctorId);
+        if (indexed == null) {
+            return;
+        }
+        for (String term : indexed.terms()) {
+            Map<Long, Integer> ids = postings.get(term);
+            if (ids == null) {
+                continue;
+            }
+            ids.remove(doctorId);
+            if (ids.isEmpty()) {
+                postings.remove(term);
+                for (String bigram : bigrams(term)) {
+                    Set<String> terms = termsByBigram.get(bigram);
+                    if (terms != null) {
+                        terms.remove(term);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String word : tokenize(text)) {
+            terms.merge(word, weight, Math::max);
+        }
+    }
+
+    // Lower-cased words without accents; single letters are dropped
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        for (String word : WORD_SEPARATOR.split(folded)) {
+            if (word.length() > 1) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static List<String> bigrams(String term) {
+        String marked = "^" + term;
+        List<String> bigrams = new ArrayList<>(marked.length() - 1);
+        for (int i = 0; i + 2 <= marked.length(); i++) {
+            bigrams.add(marked.substring(i, i + 2));
+        }
+        return bigrams;
+    }
+
+    private record IndexedDoctor(DoctorSummary summary, Set<String> terms) {
+    }
+}
@@ -2,23 +2,38 @@ package com.examly.springapp.service;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.examly.springapp.dto.OffsetPage;
+import com.examly.springapp.dto.RowsFingerprint;
 import com.examly.springapp.model.Doctor;
 import com.examly.springapp.model.Doctor.ProfileStatus;
 import com.examly.springapp.model.DoctorAvailability;
+import com.examly.springapp.model.Role;
 import com.examly.springapp.repository.DoctorAvailabilityRepository;
 import com.examly.springapp.repository.DoctorRepository;
+import com.examly.springapp.repository.DoctorSpecifications;
 
 @Service
 @Transactional
 public class DoctorService {
     
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 200;
+    
+    private static final Set<String> SORTABLE_PROPERTIES =
+            Set.of("id", "name", "specialization", "clinicName", "status", "experienceYears", "consultationFee");
+    
     @Autowired
     private DoctorRepository doctorRepository;
     
@@ -27,6 +42,18 @@ public class DoctorService {
     
     @Autowired
     private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private DoctorCatalog doctorCatalog;
+    
+    @Autowired
+    private DoctorCache doctorCache;
+
+    @Autowired
+    private UserDirectory userDirectory;
 
     // =============================================================================
     // FR2: Admin Features for Doctor Profile Management
@@ -57,7 +84,7 @@ public class DoctorService {
                 .userId(request.getUserId()) // Link to existing user account if provided
                 .build();
 
-        return doctorRepository.save(doctor);
+        return saved(doctor);
     }
 
     /**
@@ -102,7 +129,7 @@ public class DoctorService {
             existingDoctor.setUserId(request.getUserId());
         }
 
-        return doctorRepository.save(existingDoctor);
+        return saved(existingDoctor);
     }
 
     /**
@@ -113,37 +140,56 @@ public class DoctorService {
                 .orElseThrow(() -> new RuntimeException("Doctor not found with ID: " + doctorId));
         
         doctor.setUserId(userId);
-        return doctorRepository.save(doctor);
+        return saved(doctor);
     }
 
     /**
-     * Admin gets all doctor profiles with filtering options
+     * Admin gets all doctor profiles with filtering options. Filters and ordering run in SQL.
      */
     public List<Doctor> getAllDoctorProfiles(DoctorFilterRequest filter) {
-        List<Doctor> doctors = doctorRepository.findAll();
-        
-        if (filter.getSpecialization() != null) {
-            doctors = doctors.stream()
-                    .filter(doc -> doc.getSpecialization().toLowerCase()
-                            .contains(filter.getSpecialization().toLowerCase()))
-                    .collect(Collectors.toList());
-        }
-        
-        if (filter.getStatus() != null) {
-            doctors = doctors.stream()
-                    .filter(doc -> doc.getStatus() == filter.getStatus())
-                    .collect(Collectors.toList());
+        return doctorRepository.findAll(matching(filter), sortOf(filter.getSort()));
+    }
+
+    /**
+     * One page of the filtered doctor profiles: a limited select plus a count of all matches
+     */
+    @Transactional(readOnly = true)
+    public OffsetPage<Doctor> getDoctorProfilesPage(DoctorFilterRequest filter) {
+        int page = filter.getPage() != null ? filter.getPage() : 0;
+        int size = filter.getSize() != null ? filter.getSize() : DEFAULT_PAGE_SIZE;
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
         }
-        
-        if (filter.getClinicName() != null) {
-            doctors = doctors.stream()
-                    .filter(doc -> doc.getClinicName() != null && 
-                            doc.getClinicName().toLowerCase()
-                            .contains(filter.getClinicName().toLowerCase()))
-                    .collect(Collectors.toList());
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
         }
+        Page<Doctor> result = doctorRepository.findAll(matching(filter), PageRequest.of(page, size, sortOf(filter.getSort())));
+        return new OffsetPage<>(result.getContent(), page, size, result.getTotalElements());
+    }
 
-        return doctors;
+    private static Specification<Doctor> matching(DoctorFilterRequest filter) {
+        return Specification.where(DoctorSpecifications.specializationContains(filter.getSpecialization()))
+                .and(DoctorSpecifications.hasStatus(filter.getStatus()))
+                .and(DoctorSpecifications.clinicNameContains(filter.getClinicName()));
+    }
+
+    // "name" or "name,desc"; id is always appended so equal values page deterministically
+    static Sort sortOf(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.by("id");
+        }
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!SORTABLE_PROPERTIES.contains(property)) {
+            throw new IllegalArgumentException("Cannot sort doctors by '" + property + "'. Allowed: " + SORTABLE_PROPERTIES);
+        }
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (parts.length > 1) {
+            direction = Sort.Direction.fromOptionalString(parts[1].trim())
+                    .orElseThrow(() -> new IllegalArgumentException("Sort direction must be asc or desc"));
+        }
+        Sort order = Sort.by(direction, property);
+        return property.equals("id") ? order : order.and(Sort.by(direction, "id"));
     }
 
     // =============================================================================
@@ -191,7 +237,7 @@ public class DoctorService {
             doctor.setConsultationFee(request.getConsultationFee());
         }
 
-        return doctorRepository.save(doctor);
+        return saved(doctor);
     }
 
     // =============================================================================
@@ -199,27 +245,38 @@ public class DoctorService {
     // =============================================================================
 
     public Doctor createDoctor(Doctor doctor) {
-        return doctorRepository.save(doctor);
+        return saved(doctor);
     }
 
+    // The three lookups below are served from DoctorCache; writes invalidate it via DoctorChangedEvent
     public List<Doctor> getAllDoctors() {
-        return doctorRepository.findAll();
+        return doctorCache.getAll(doctorRepository::findAll);
     }
 
     public Doctor getDoctorById(Long id) {
-        Optional<Doctor> doctor = doctorRepository.findById(id);
-        return doctor.orElse(null);
+        return doctorCache.getById(id, () -> doctorRepository.findById(id).orElse(null));
+    }
+
+    // Bypasses DoctorCache, for callers that already know the cached state is behind the database
+    public Doctor getDoctorByIdUncached(Long id) {
+        return doctorRepository.findById(id).orElse(null);
+    }
+
+    public List<Doctor> getAllDoctorsUncached() {
+        return doctorRepository.findAll();
     }
 
     public Doctor getDoctorByEmail(String email) {
-        Optional<Doctor> doctor = doctorRepository.findByEmail(email);
-        return doctor.orElse(null);
+        return doctorCache.getByEmail(email, () -> doctorRepository.findByEmail(email).orElse(null));
     }
 
     public Doctor updateDoctor(Long id, Doctor doctor) {
-        if (doctorRepository.existsById(id)) {
+        Optional<Long> version = doctorRepository.findVersionById(id);
+        if (version.isPresent()) {
             doctor.setId(id);
-            return doctorRepository.save(doctor);
+            // Full replace stays last-write-wins; the body does not have to carry the version
+            doctor.setVersion(version.get());
+            return saved(doctor);
         }
         return null;
     }
@@ -232,6 +289,8 @@ public class DoctorService {
                     availabilityRepository.deleteByDoctor(doctor);
                 }
                 doctorRepository.deleteById(id);
+                userDirectory.forget(Role.DOCTOR, id);
+                eventPublisher.publishEvent(DoctorChangedEvent.deleted(id));
                 return "Doctor deleted successfully";
             } else {
                 return "Doctor not found with ID: " + id;
@@ -241,19 +300,21 @@ public class DoctorService {
         }
     }
 
+    // Every doctor write goes through here so the in-memory views hear about it after commit
+    private Doctor saved(Doctor doctor) {
+        Doctor saved = doctorRepository.save(doctor);
+        userDirectory.record(Role.DOCTOR, saved.getId(), saved.getEmail());
+        eventPublisher.publishEvent(DoctorChangedEvent.saved(saved));
+        return saved;
+    }
+
     public List<Doctor> getDoctorsBySpecialization(String specialization) {
-        return doctorRepository.findAll().stream()
-                .filter(doctor -> doctor.getSpecialization() != null &&
-                          doctor.getSpecialization().toLowerCase().contains(specialization.toLowerCase()))
-                .collect(Collectors.toList());
+        return doctorRepository.findAll(DoctorSpecifications.specializationContains(specialization), Sort.by("id"));
     }
 
+    // Specializations of active doctors, from the in-memory catalog
     public List<String> getAvailableSpecializations() {
-        return doctorRepository.findAll().stream()
-                .map(Doctor::getSpecialization)
-                .filter(spec -> spec != null && !spec.trim().isEmpty())
-                .distinct()
-                .collect(Collectors.toList());
+        return doctorCatalog.getSpecializationNames();
     }
 
     public long getTotalDoctorsCount() {
@@ -302,6 +363,45 @@ public class DoctorService {
         return availabilityRepository.findActiveAvailabilityByDoctorId(doctorId);
     }
 
+    // =============================================================================
+    // Validators for conditional GETs
+    // =============================================================================
+
+    public String getDoctorsEtag() {
+        return doctorRepository.fingerprintAll().toEtag("doctors");
+    }
+
+    // The same fingerprint over the doctors actually being returned
+    public String getDoctorsEtag(List<Doctor> doctors) {
+        long maxId = 0;
+        long idSum = 0;
+        long versionSum = 0;
+        for (Doctor doctor : doctors) {
+            maxId = Math.max(maxId, doctor.getId());
+            idSum += doctor.getId();
+            versionSum += doctor.getVersion();
+        }
+        return new RowsFingerprint((long) doctors.size(), maxId, idSum, versionSum).toEtag("doctors");
+    }
+
+    // null when the doctor does not exist
+    public String getDoctorEtag(Long id) {
+        return doctorRepository.findVersionById(id).map(version -> doctorEtag(id, version)).orElse(null);
+    }
+
+    // Validator of the state actually being returned, which may differ from the row by now
+    public String getDoctorEtag(Doctor doctor) {
+        return doctorEtag(doctor.getId(), doctor.getVersion());
+    }
+
+    private static String doctorEtag(Long id, long version) {
+        return "doctor-" + id + "-" + version;
+    }
+
+    public String getAvailabilityEtag(Long doctorId) {
+        return availabilityRepository.fingerprintActiveByDoctorId(doctorId).toEtag("availability-" + doctorId);
+    }
+
     // =============================================================================
     // DTOs for FR2 Implementation
     // =============================================================================
@@ -455,10 +555,16 @@ public class DoctorService {
         private String specialization;
         private ProfileStatus status;
         private String clinicName;
+        private Integer page;
+        private Integer size;
+        private String sort;
 
         // Constructors, getters, and setters
         public DoctorFilterRequest() {}
 
+        // Paged as soon as a page or a size is given; otherwise the full filtered list is returned
+        public boolean isPaged() { return page != null || size != null; }
+
         public String getSpecialization() { return specialization; }
         public void setSpecialization(String specialization) { this.specialization = specialization; }
         
@@ -467,6 +573,15 @@ public class DoctorService {
         
         public String getClinicName() { return clinicName; }
         public void setClinicName(String clinicName) { this.clinicName = clinicName; }
+        
+        public Integer getPage() { return page; }
+        public void setPage(Integer page) { this.page = page; }
+        
+        public Integer getSize() { return size; }
+        public void setSize(Integer size) { this.size = size; }
+        
+        public String getSort() { return sort; }
+        public void setSort(String sort) { this.sort = sort; }
     }
 
     // Existing DTO classes remain the same...
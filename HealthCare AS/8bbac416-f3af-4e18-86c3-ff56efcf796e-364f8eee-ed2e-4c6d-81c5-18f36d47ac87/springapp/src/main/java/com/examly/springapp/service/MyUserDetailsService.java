@@ -4,12 +4,16 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.examly.springapp.model.Admin;
 import com.examly.springapp.model.Doctor;
@@ -19,65 +23,79 @@ import com.examly.springapp.repository.DoctorRepository;
 import com.examly.springapp.repository.PatientRepository;
 
 @Service
-public class MyUserDetailsService implements UserDetailsService {
+public class MyUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
     private final AdminRepository adminRepository;
+    private final UserDirectory userDirectory;
+    private final ApplicationEventPublisher eventPublisher;
 
     public MyUserDetailsService(PatientRepository patientRepository, 
                                DoctorRepository doctorRepository,
-                               AdminRepository adminRepository) {
+                               AdminRepository adminRepository,
+                               UserDirectory userDirectory,
+                               ApplicationEventPublisher eventPublisher) {
         this.patientRepository = patientRepository;
         this.doctorRepository = doctorRepository;
         this.adminRepository = adminRepository;
+        this.userDirectory = userDirectory;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         System.out.println("🔍 Loading user by email: " + email);
 
-        // Check in Patient repository
-        return patientRepository.findByEmail(email)
-                .map(patient -> {
-                    System.out.println("✅ Found patient: " + patient.getName() + " with role: " + patient.getRole());
-                    return createUserDetails(patient.getEmail(), patient.getPassword(), patient.getRole().name());
-                })
-                // Check in Doctor repository if not found in Patient
-                .orElseGet(() -> doctorRepository.findByEmail(email)
-                        .map(doctor -> {
-                            System.out.println("✅ Found doctor: " + doctor.getName() + " with role: " + doctor.getRole());
-                            return createUserDetails(doctor.getEmail(), doctor.getPassword(), doctor.getRole().name());
-                        })
-                        // Check in Admin repository if not found in Doctor
-                        .orElseGet(() -> adminRepository.findByEmail(email)
-                                .map(admin -> {
-                                    System.out.println("✅ Found admin: " + admin.getName() + " with role: " + admin.getRole());
-                                    return createUserDetails(admin.getEmail(), admin.getPassword(), admin.getRole().name());
-                                })
-                                // Throw exception if not found in any repository
-                                .orElseThrow(() -> {
-                                    System.out.println("❌ User not found with email: " + email);
-                                    return new UsernameNotFoundException("User not found with email: " + email);
-                                }))
-                );
+        // One directory lookup says which table the user is in, then one load by id
+        Object user = userDirectory.findUser(email);
+        if (user instanceof Patient patient) {
+            System.out.println("✅ Found patient: " + patient.getName() + " with role: " + patient.getRole());
+            return createUserDetails(patient.getEmail(), patient.getPassword(), patient.getRole().name(), patient);
+        } else if (user instanceof Doctor doctor) {
+            System.out.println("✅ Found doctor: " + doctor.getName() + " with role: " + doctor.getRole());
+            return createUserDetails(doctor.getEmail(), doctor.getPassword(), doctor.getRole().name(), doctor);
+        } else if (user instanceof Admin admin) {
+            System.out.println("✅ Found admin: " + admin.getName() + " with role: " + admin.getRole());
+            return createUserDetails(admin.getEmail(), admin.getPassword(), admin.getRole().name(), admin);
+        }
+        System.out.println("❌ User not found with email: " + email);
+        throw new UsernameNotFoundException("User not found with email: " + email);
     }
 
-    private UserDetails createUserDetails(String email, String password, String role) {
+    /**
+     * Called by the authentication provider after a successful login whose stored hash is weaker
+     * than the configured BCrypt strength, with the password already hashed at the new strength.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Object account = user instanceof AccountDetails details ? details.getAccount() : userDirectory.findUser(user.getUsername());
+        if (account instanceof Patient patient) {
+            patientRepository.updatePassword(patient.getId(), newPassword);
+            patient.setPassword(newPassword);
+        } else if (account instanceof Doctor doctor) {
+            doctorRepository.updatePassword(doctor.getId(), newPassword);
+            doctor.setPassword(newPassword);
+            // The bulk update skips the entity listener, so the doctor cache would keep the old hash
+            eventPublisher.publishEvent(DoctorChangedEvent.saved(doctor));
+        } else if (account instanceof Admin admin) {
+            adminRepository.updatePassword(admin.getId(), newPassword);
+            admin.setPassword(newPassword);
+        } else {
+            return user;
+        }
+        System.out.println("🔑 Rehashed password for: " + user.getUsername());
+        return new AccountDetails(user.getUsername(), newPassword, user.getAuthorities(), account);
+    }
+
+    private UserDetails createUserDetails(String email, String password, String role, Object account) {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
         
         System.out.println("🔑 Creating UserDetails for: " + email + " with authority: ROLE_" + role);
 
-        return new org.springframework.security.core.userdetails.User(
-                email,
-                password,
-                true, // enabled
-                true, // accountNonExpired
-                true, // credentialsNonExpired
-                true, // accountNonLocked
-                authorities
-        );
+        return new AccountDetails(email, password, authorities, account);
     }
 
     // Helper methods to get user information
@@ -95,23 +113,33 @@ public class MyUserDetailsService implements UserDetailsService {
 
     // Method to get user role by email
     public String getUserRole(String email) {
-        return patientRepository.findByEmail(email)
-                .map(patient -> patient.getRole().name())
-                .orElseGet(() -> doctorRepository.findByEmail(email)
-                        .map(doctor -> doctor.getRole().name())
-                        .orElseGet(() -> adminRepository.findByEmail(email)
-                                .map(admin -> admin.getRole().name())
-                                .orElse(null)));
+        return userDirectory.findIdentity(email)
+                .map(identity -> identity.role().name())
+                .orElse(null);
     }
 
     // Method to get user ID by email (useful for authorization checks)
     public Long getUserId(String email) {
-        return patientRepository.findByEmail(email)
-                .map(Patient::getId)
-                .orElseGet(() -> doctorRepository.findByEmail(email)
-                        .map(Doctor::getId)
-                        .orElseGet(() -> adminRepository.findByEmail(email)
-                                .map(Admin::getId)
-                                .orElse(null)));
+        return userDirectory.findIdentity(email)
+                .map(UserDirectory.Identity::entityId)
+                .orElse(null);
+    }
+
+    /**
+     * The authenticated user together with the Patient, Doctor or Admin it was loaded from, so
+     * callers of {@code authenticate} can use the entity without fetching it again.
+     */
+    public static class AccountDetails extends User {
+
+        private final transient Object account;
+
+        public AccountDetails(String email, String password, Collection<? extends GrantedAuthority> authorities, Object account) {
+            super(email, password, true, true, true, true, authorities);
+            this.account = account;
+        }
+
+        public Object getAccount() {
+            return account;
+        }
     }
 }
\ No newline at end of file
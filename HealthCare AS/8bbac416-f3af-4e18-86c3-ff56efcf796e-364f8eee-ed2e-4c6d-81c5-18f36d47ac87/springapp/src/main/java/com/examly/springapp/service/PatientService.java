@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.examly.springapp.model.Patient;
+import com.examly.springapp.model.Role;
 import com.examly.springapp.repository.PatientRepository;
 
 @Service
@@ -13,8 +14,13 @@ public class PatientService {
     @Autowired
     private PatientRepository patientRepository;
 
+    @Autowired
+    private UserDirectory userDirectory;
+
     public Patient createPatient(Patient patient) {
-        return patientRepository.save(patient);
+        Patient saved = patientRepository.save(patient);
+        userDirectory.record(Role.PATIENT, saved.getId(), saved.getEmail());
+        return saved;
     }
 
     public List<Patient> getAllPatients() {
@@ -32,13 +38,16 @@ public class PatientService {
             existing.setEmail(updatedPatient.getEmail());
             existing.setPhoneNumber(updatedPatient.getPhoneNumber());
             existing.setDateOfBirth(updatedPatient.getDateOfBirth());
-            return patientRepository.save(existing);
+            Patient saved = patientRepository.save(existing);
+            userDirectory.record(Role.PATIENT, saved.getId(), saved.getEmail());
+            return saved;
         }
         return null;
     }
 
     public void deletePatient(Long id) {
         patientRepository.deleteById(id);
+        userDirectory.forget(Role.PATIENT, id);
     }
 
     public Long getPatientIdByEmail(String email) {
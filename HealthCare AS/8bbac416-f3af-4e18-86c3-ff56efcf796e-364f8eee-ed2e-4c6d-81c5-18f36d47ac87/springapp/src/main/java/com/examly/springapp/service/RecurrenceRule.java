@@ -0,0 +1,102 @@
+package com.examly.springapp.service;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Small subset of RFC 5545 RRULE: {@code FREQ=DAILY|WEEKLY|MONTHLY;INTERVAL=n;COUNT=n} or
+ * {@code ...;UNTIL=yyyy-MM-dd} (the basic {@code yyyyMMdd} form is accepted too).
+ * Exactly one of COUNT and UNTIL must be given.
+ */
+public record RecurrenceRule(Frequency frequency, int interval, Integer count, LocalDate until) {
+
+    public enum Frequency {
+        DAILY,
+        WEEKLY,
+        MONTHLY
+    }
+
+    public static RecurrenceRule parse(String rule) {
+        if (rule == null || rule.trim().isEmpty()) {
+            throw new IllegalArgumentException("Recurrence rule is required");
+        }
+        Frequency frequency = null;
+        int interval = 1;
+        Integer count = null;
+        LocalDate until = null;
+        String body = rule.trim();
+        if (body.toUpperCase().startsWith("RRULE:")) {
+            body = body.substring("RRULE:".length());
+        }
+        for (String part : body.split(";")) {
+            String[] pair = part.split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Malformed recurrence rule part: " + part);
+            }
+            String value = pair[1].trim();
+            try {
+                switch (pair[0].trim().toUpperCase()) {
+                    case "FREQ" -> frequency = Frequency.valueOf(value.toUpperCase());
+                    case "INTERVAL" -> interval = Integer.parseInt(value);
+                    case "COUNT" -> count = Integer.parseInt(value);
+                    case "UNTIL" -> until = value.contains("-")
+                            ? LocalDate.parse(value)
+                            : LocalDate.parse(value.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE);
+                    default -> throw new IllegalArgumentException("Unsupported recurrence rule part: " + pair[0]);
+                }
+            } catch (NumberFormatException | DateTimeParseException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid value for " + pair[0] + ": " + value);
+            }
+        }
+        if (frequency == null) {
+            throw new IllegalArgumentException("Recurrence rule needs FREQ=DAILY, WEEKLY or MONTHLY");
+        }
+        if (interval < 1) {
+            throw new IllegalArgumentException("INTERVAL must be at least 1");
+        }
+        if ((count == null) == (until == null)) {
+            throw new IllegalArgumentException("Recurrence rule needs exactly one of COUNT or UNTIL");
+        }
+        if (count != null && count < 1) {
+            throw new IllegalArgumentException("COUNT must be at least 1");
+        }
+        return new RecurrenceRule(frequency, interval, count, until);
+    }
+
+    /**
+     * Expands the rule from {@code start}. Every occurrence is computed from the start date rather than
+     * the previous one, so monthly series on the 31st fall back to the month end without drifting.
+     * Fails when the series would exceed {@code maxOccurrences} or run past {@code horizon}.
+     */
+    public List<LocalDate> occurrences(LocalDate start, int maxOccurrences, LocalDate horizon) {
+        List<LocalDate> dates = new ArrayList<>();
+        for (int n = 0; count == null || n < count; n++) {
+            LocalDate date;
+            try {
+                date = switch (frequency) {
+                    case DAILY -> start.plusDays((long) n * interval);
+                    case WEEKLY -> start.plusWeeks((long) n * interval);
+                    case MONTHLY -> start.plusMonths((long) n * interval);
+                };
+            } catch (DateTimeException e) {
+                // A huge INTERVAL runs past LocalDate.MAX
+                throw new IllegalArgumentException("A series cannot extend beyond " + horizon);
+            }
+            if (until != null && date.isAfter(until)) {
+                break;
+            }
+            if (date.isAfter(horizon)) {
+                throw new IllegalArgumentException("A series cannot extend beyond " + horizon);
+            }
+            if (dates.size() == maxOccurrences) {
+                throw new IllegalArgumentException("A series can contain at most " + maxOccurrences + " appointments");
+            }
+            dates.add(date);
+        }
+        return dates;
+    }
+}
@@ -0,0 +1,265 @@
+package com.examly.springapp.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.examly.springapp.model.Appointment;
+import com.examly.springapp.model.AppointmentStatus;
+import com.examly.springapp.repository.AppointmentRepository;
+import com.examly.springapp.repository.DoctorRepository;
+
+/**
+ * Short-lived leases on a (doctor, date, time) slot so a patient can fill in the booking form
+ * without losing the slot. While a hold is live only its holder can book the slot; booking
+ * converts the hold. Patients can only hold slots the doctor actually works and only a few at a
+ * time, so nobody can lock up a doctor's calendar by holding every slot.
+ *
+ * Every hold also sits in a {@link DelayQueue} ordered by deadline, so the sweeper only ever
+ * touches holds that have actually expired. Converted or released holds stay in the queue until
+ * their deadline and are then dropped without effect.
+ */
+@Service
+public class SlotHoldService {
+
+    public static final long MAX_TTL_SECONDS = 15 * 60;
+    public static final int MAX_HOLDS_PER_PATIENT_LIMIT = 10;
+
+    private final SlotOccupancyIndex slotOccupancyIndex;
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorRepository doctorRepository;
+    private final AvailabilityService availabilityService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long ttlSeconds;
+    private final int maxHoldsPerPatient;
+
+    private final Map<String, Hold> holdsBySlot = new ConcurrentHashMap<>();
+    private final Map<String, Hold> holdsById = new ConcurrentHashMap<>();
+    // Live holds of each patient, for the per-patient cap
+    private final Map<Long, Set<Hold>> holdsByPatient = new ConcurrentHashMap<>();
+    private final DelayQueue<Hold> expiries = new DelayQueue<>();
+
+    public SlotHoldService(SlotOccupancyIndex slotOccupancyIndex,
+                           AppointmentRepository appointmentRepository,
+                           DoctorRepository doctorRepository,
+                           AvailabilityService availabilityService,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${appointments.hold.ttl-seconds:120}") long ttlSeconds,
+                           @Value("${appointments.hold.max-per-patient:3}") int maxHoldsPerPatient) {
+        if (ttlSeconds < 1 || ttlSeconds > MAX_TTL_SECONDS) {
+            throw new IllegalArgumentException("appointments.hold.ttl-seconds must be between 1 and " + MAX_TTL_SECONDS);
+        }
+        if (maxHoldsPerPatient < 1 || maxHoldsPerPatient > MAX_HOLDS_PER_PATIENT_LIMIT) {
+            throw new IllegalArgumentException("appointments.hold.max-per-patient must be between 1 and " + MAX_HOLDS_PER_PATIENT_LIMIT);
+        }
+        this.slotOccupancyIndex = slotOccupancyIndex;
+        this.appointmentRepository = appointmentRepository;
+        this.doctorRepository = doctorRepository;
+        this.availabilityService = availabilityService;
+        this.eventPublisher = eventPublisher;
+        this.ttlSeconds = ttlSeconds;
+        this.maxHoldsPerPatient = maxHoldsPerPatient;
+    }
+
+    /**
+     * Places (or refreshes) a hold for the patient. Fails when the doctor does not work at that
+     * time, the slot is already booked or held by someone else, or the patient already holds
+     * {@code appointments.hold.max-per-patient} other slots.
+     */
+    public Hold hold(Long patientId, Long doctorId, LocalDate date, LocalTime time) {
+        validate(patientId, doctorId, date, time);
+        if (!doctorRepository.existsById(doctorId)) {
+            throw new IllegalArgumentException("Doctor not found with ID: " + doctorId);
+        }
+        if (!availabilityService.offersSlot(doctorId, date, time)) {
+            throw new IllegalArgumentException("Doctor is not available on " + date + " at " + time);
+        }
+        return place(patientId, doctorId, date, time, ttlSeconds, true);
+    }
+
+    /**
+     * Holds a slot on the patient's behalf while it is offered to them, e.g. a freed slot handed to
+     * the waitlist. The slot came from a booking, so the availability check and the per-patient cap
+     * do not apply.
+     */
+    public Hold holdForOffer(Long patientId, Long doctorId, LocalDate date, LocalTime time, long ttlSeconds) {
+        if (ttlSeconds < 1 || ttlSeconds > MAX_TTL_SECONDS) {
+            throw new IllegalArgumentException("Hold lifetime must be between 1 and " + MAX_TTL_SECONDS + " seconds");
+        }
+        validate(patientId, doctorId, date, time);
+        return place(patientId, doctorId, date, time, ttlSeconds, false);
+    }
+
+    private void validate(Long patientId, Long doctorId, LocalDate date, LocalTime time) {
+        if (patientId == null || doctorId == null || date == null || time == null) {
+            throw new IllegalArgumentException("Doctor, date and time are required");
+        }
+        if (date.atTime(time).isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Cannot hold a slot in the past");
+        }
+    }
+
+    private Hold place(Long patientId, Long doctorId, LocalDate date, LocalTime time, long ttlSeconds, boolean capped) {
+        if (isBooked(doctorId, date, time)) {
+            throw new IllegalStateException("Doctor already has an appointment at this time on " + date + " at " + time);
+        }
+
+        String key = Appointment.slotKey(doctorId, date, time);
+        Hold hold = new Hold(UUID.randomUUID().toString(), patientId, doctorId, date, time,
+                Instant.now().plusSeconds(ttlSeconds), System.nanoTime() + TimeUnit.SECONDS.toNanos(ttlSeconds), key);
+        // Counted before the slot is taken so two concurrent holds cannot both slip under the cap;
+        // refreshing a slot the patient already holds does not count twice
+        boolean[] refused = new boolean[1];
+        holdsByPatient.compute(patientId, (id, holds) -> {
+            Set<Hold> live = holds != null ? holds : ConcurrentHashMap.newKeySet();
+            live.removeIf(existing -> !existing.isLive());
+            if (capped && live.stream().filter(existing -> !existing.slotKey().equals(key)).count() >= maxHoldsPerPatient) {
+                refused[0] = true;
+            } else {
+                live.add(hold);
+            }
+            return live.isEmpty() ? null : live;
+        });
+        if (refused[0]) {
+            throw new IllegalStateException("You can hold at most " + maxHoldsPerPatient + " slots at a time");
+        }
+
+        Hold[] replaced = new Hold[1];
+        Hold current = holdsBySlot.compute(key, (k, existing) -> {
+            if (existing != null && existing.isLive() && !existing.patientId().equals(patientId)) {
+                return existing;
+            }
+            replaced[0] = existing;
+            return hold;
+        });
+        if (current != hold) {
+            forgetForPatient(hold);
+            throw new IllegalStateException("This time slot is currently held by another patient");
+        }
+        if (replaced[0] != null) {
+            holdsById.remove(replaced[0].id());
+            forgetForPatient(replaced[0]);
+        }
+        holdsById.put(hold.id(), hold);
+        expiries.add(hold);
+        return hold;
+    }
+
+    public String release(String holdId, Long patientId, boolean isAdmin) {
+        Hold hold = holdsById.get(holdId);
+        if (hold == null || !hold.isLive()) {
+            return "Hold not found or already expired";
+        }
+        if (!isAdmin && !hold.patientId().equals(patientId)) {
+            return "You can only release your own holds";
+        }
+        if (remove(hold)) {
+            eventPublisher.publishEvent(new SlotReleasedEvent(hold.doctorId(), hold.date(), hold.time()));
+        }
+        return "Hold released successfully";
+    }
+
+    /**
+     * Called while booking. Returns false when another patient holds the slot. The patient's own
+     * hold is converted once the booking commits; if it rolls back the hold stays in place.
+     */
+    public boolean claim(Long patientId, Long doctorId, LocalDate date, LocalTime time) {
+        Hold hold = holdsBySlot.get(Appointment.slotKey(doctorId, date, time));
+        if (hold == null || !hold.isLive()) {
+            return true;
+        }
+        if (!hold.patientId().equals(patientId)) {
+            return false;
+        }
+        TransactionCallbacks.afterCommit(() -> remove(hold));
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${appointments.hold.sweep-interval-ms:1000}")
+    public void sweepExpired() {
+        Hold hold;
+        while ((hold = expiries.poll()) != null) {
+            // Only holds that lapsed unused give the slot back; converted ones are already gone
+            if (remove(hold)) {
+                eventPublisher.publishEvent(new SlotReleasedEvent(hold.doctorId(), hold.date(), hold.time()));
+            }
+        }
+    }
+
+    public boolean isHeld(String holdId) {
+        Hold hold = holdsById.get(holdId);
+        return hold != null && hold.isLive();
+    }
+
+    // Drops a hold without announcing the slot, for holds whose purpose failed before anyone saw them
+    public void discard(String holdId) {
+        Hold hold = holdsById.get(holdId);
+        if (hold != null) {
+            remove(hold);
+        }
+    }
+
+    private boolean remove(Hold hold) {
+        holdsById.remove(hold.id(), hold);
+        forgetForPatient(hold);
+        return holdsBySlot.remove(hold.slotKey(), hold);
+    }
+
+    private void forgetForPatient(Hold hold) {
+        holdsByPatient.computeIfPresent(hold.patientId(), (id, holds) -> {
+            holds.remove(hold);
+            return holds.isEmpty() ? null : holds;
+        });
+    }
+
+    private boolean isBooked(Long doctorId, LocalDate date, LocalTime time) {
+        if (slotOccupancyIndex.isReady()) {
+            return slotOccupancyIndex.isOccupied(doctorId, date, time);
+        }
+        return appointmentRepository.existsByDoctorIdAndAppointmentDateAndAppointmentTimeAndStatusNotIn(
+                doctorId, date, time, AppointmentStatus.RELEASED);
+    }
+
+    public record Hold(
+            String id,
+            Long patientId,
+            Long doctorId,
+            LocalDate date,
+            LocalTime time,
+            Instant expiresAt,
+            @JsonIgnore long deadlineNanos,
+            @JsonIgnore String slotKey
+    ) implements Delayed {
+
+        @JsonIgnore
+        public boolean isLive() {
+            return deadlineNanos - System.nanoTime() > 0;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return other instanceof Hold hold
+                    ? Long.compare(deadlineNanos, hold.deadlineNanos)
+                    : Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
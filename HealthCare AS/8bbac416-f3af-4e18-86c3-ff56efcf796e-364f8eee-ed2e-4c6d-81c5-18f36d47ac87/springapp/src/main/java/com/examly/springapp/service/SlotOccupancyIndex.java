@@ -0,0 +1,266 @@
+package com.examly.springapp.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.examly.springapp.dto.BookedSlot;
+import com.examly.springapp.model.AppointmentStatus;
+import com.examly.springapp.repository.AppointmentRepository;
+
+/**
+ * In-memory view of which (doctor, date, minute) slots are taken by an active appointment.
+ * Each doctor-day is a 1440-bit bitmap, so conflict checks never go to the database once the
+ * index has been loaded. Only today and future dates are tracked since past slots cannot be booked;
+ * past days are evicted nightly.
+ *
+ * A rebuild loads the table into a fresh map and swaps it in, so bookings keep using the old one
+ * meanwhile. Claims whose transaction has not finished are not in the table yet; they are carried
+ * over into the new map, as is every change made while the table was being read.
+ */
+@Component
+public class SlotOccupancyIndex {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final AppointmentRepository appointmentRepository;
+    private volatile Map<Long, Map<LocalDate, BitSet>> occupancy = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+
+    // Claims made by transactions that have not committed or rolled back yet
+    private final Set<Slot> inFlight = ConcurrentHashMap.newKeySet();
+    // Changes made while a rebuild reads the table, replayed onto the new map; null otherwise
+    private volatile ConcurrentLinkedQueue<Change> journal;
+    // Mutations share the read side; starting a rebuild and swapping the map take the write side
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    public SlotOccupancyIndex(AppointmentRepository appointmentRepository) {
+        this.appointmentRepository = appointmentRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        List<Slot> inFlightAtStart;
+        swapLock.writeLock().lock();
+        try {
+            journal = new ConcurrentLinkedQueue<>();
+            inFlightAtStart = new ArrayList<>(inFlight);
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        List<BookedSlot> slots = appointmentRepository.findBookedSlotsFrom(LocalDate.now(), AppointmentStatus.RELEASED);
+        Map<Long, Map<LocalDate, BitSet>> rebuilt = new ConcurrentHashMap<>();
+        for (BookedSlot slot : slots) {
+            dayIn(rebuilt, slot.doctorId(), slot.appointmentDate()).set(minuteOf(slot.appointmentTime()));
+        }
+        // A claim in flight at the start may commit after the table was read; a rollback is in the journal
+        for (Slot slot : inFlightAtStart) {
+            dayIn(rebuilt, slot.doctorId(), slot.date()).set(slot.minute());
+        }
+
+        swapLock.writeLock().lock();
+        try {
+            for (Change change : journal) {
+                dayIn(rebuilt, change.slot().doctorId(), change.slot().date()).set(change.slot().minute(), change.taken());
+            }
+            occupancy = rebuilt;
+            journal = null;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        ready = true;
+        System.out.println("✅ Slot occupancy index loaded with " + slots.size() + " booked slots");
+    }
+
+    // Until the startup load finishes callers must fall back to the database
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean isOccupied(Long doctorId, LocalDate date, LocalTime time) {
+        Map<LocalDate, BitSet> days = occupancy.get(doctorId);
+        BitSet day = days != null ? days.get(date) : null;
+        if (day == null) {
+            return false;
+        }
+        synchronized (day) {
+            return day.get(minuteOf(time));
+        }
+    }
+
+    /**
+     * Atomically claims the slot. Returns false when it is already taken. If the surrounding
+     * transaction rolls back the claim is undone.
+     */
+    public boolean tryOccupy(Long doctorId, LocalDate date, LocalTime time) {
+        Slot slot = new Slot(doctorId, date, minuteOf(time));
+        swapLock.readLock().lock();
+        try {
+            BitSet day = dayIn(occupancy, doctorId, date);
+            synchronized (day) {
+                if (day.get(slot.minute())) {
+                    return false;
+                }
+                day.set(slot.minute());
+                record(slot, true);
+            }
+            inFlight.add(slot);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+        TransactionCallbacks.onRollback(() -> set(slot, false));
+        TransactionCallbacks.afterCompletion(() -> inFlight.remove(slot));
+        return true;
+    }
+
+    /**
+     * Marks the slot as taken without a conflict check, e.g. when an admin moves an appointment
+     * back to an active status.
+     */
+    public void occupy(Long doctorId, LocalDate date, LocalTime time) {
+        Slot slot = new Slot(doctorId, date, minuteOf(time));
+        swapLock.readLock().lock();
+        try {
+            write(slot, true);
+            inFlight.add(slot);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+        TransactionCallbacks.onRollback(() -> set(slot, false));
+        TransactionCallbacks.afterCompletion(() -> inFlight.remove(slot));
+    }
+
+    // Frees the slot once the cancellation/rejection has been committed
+    public void release(Long doctorId, LocalDate date, LocalTime time) {
+        Slot slot = new Slot(doctorId, date, minuteOf(time));
+        TransactionCallbacks.afterCommit(() -> set(slot, false));
+    }
+
+    // Past days can no longer be booked, so their bitmaps are dropped
+    @Scheduled(cron = "${appointments.occupancy.evict-cron:0 5 0 * * *}")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        swapLock.writeLock().lock();
+        try {
+            occupancy.values().forEach(days -> days.keySet().removeIf(date -> date.isBefore(today)));
+            occupancy.values().removeIf(Map::isEmpty);
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Compares the index against the appointment table and reports any drift in either direction.
+     * Slots claimed by transactions that are still running are not counted as stale.
+     */
+    @Transactional(readOnly = true)
+    public ConsistencyReport checkConsistency() {
+        LocalDate today = LocalDate.now();
+        Map<Long, Map<LocalDate, BitSet>> expected = new HashMap<>();
+        List<BookedSlot> tableSlots = appointmentRepository.findBookedSlotsFrom(today, AppointmentStatus.RELEASED);
+        for (BookedSlot slot : tableSlots) {
+            expected.computeIfAbsent(slot.doctorId(), id -> new HashMap<>())
+                    .computeIfAbsent(slot.appointmentDate(), d -> new BitSet(MINUTES_PER_DAY))
+                    .set(minuteOf(slot.appointmentTime()));
+        }
+
+        List<BookedSlot> missing = new ArrayList<>();
+        for (BookedSlot slot : tableSlots) {
+            if (!isOccupied(slot.doctorId(), slot.appointmentDate(), slot.appointmentTime())) {
+                missing.add(slot);
+            }
+        }
+
+        List<BookedSlot> stale = new ArrayList<>();
+        int indexedSlots = 0;
+        for (Map.Entry<Long, Map<LocalDate, BitSet>> doctorEntry : occupancy.entrySet()) {
+            for (Map.Entry<LocalDate, BitSet> dayEntry : doctorEntry.getValue().entrySet()) {
+                if (dayEntry.getKey().isBefore(today)) {
+                    continue;
+                }
+                BitSet actual;
+                synchronized (dayEntry.getValue()) {
+                    actual = (BitSet) dayEntry.getValue().clone();
+                }
+                indexedSlots += actual.cardinality();
+                BitSet wanted = expected.getOrDefault(doctorEntry.getKey(), Map.of()).get(dayEntry.getKey());
+                if (wanted != null) {
+                    actual.andNot(wanted);
+                }
+                for (int minute = actual.nextSetBit(0); minute >= 0; minute = actual.nextSetBit(minute + 1)) {
+                    if (!inFlight.contains(new Slot(doctorEntry.getKey(), dayEntry.getKey(), minute))) {
+                        stale.add(new BookedSlot(doctorEntry.getKey(), dayEntry.getKey(), LocalTime.of(minute / 60, minute % 60)));
+                    }
+                }
+            }
+        }
+
+        return new ConsistencyReport(missing.isEmpty() && stale.isEmpty(), indexedSlots, tableSlots.size(), missing, stale);
+    }
+
+    private void set(Slot slot, boolean taken) {
+        swapLock.readLock().lock();
+        try {
+            write(slot, taken);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    // Journals under the same lock as the bit write, so a replay sees changes to a slot in the order they were made
+    private void write(Slot slot, boolean taken) {
+        BitSet day = dayIn(occupancy, slot.doctorId(), slot.date());
+        synchronized (day) {
+            day.set(slot.minute(), taken);
+            record(slot, taken);
+        }
+    }
+
+    private void record(Slot slot, boolean taken) {
+        ConcurrentLinkedQueue<Change> changes = journal;
+        if (changes != null) {
+            changes.add(new Change(slot, taken));
+        }
+    }
+
+    private static BitSet dayIn(Map<Long, Map<LocalDate, BitSet>> map, Long doctorId, LocalDate date) {
+        return map.computeIfAbsent(doctorId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(date, d -> new BitSet(MINUTES_PER_DAY));
+    }
+
+    // Appointments are booked on minute boundaries, seconds are ignored
+    private static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private record Slot(Long doctorId, LocalDate date, int minute) {
+    }
+
+    private record Change(Slot slot, boolean taken) {
+    }
+
+    public record ConsistencyReport(
+            boolean consistent,
+            int indexedSlots,
+            int tableSlots,
+            List<BookedSlot> missingFromIndex,
+            List<BookedSlot> staleInIndex
+    ) {
+    }
+}
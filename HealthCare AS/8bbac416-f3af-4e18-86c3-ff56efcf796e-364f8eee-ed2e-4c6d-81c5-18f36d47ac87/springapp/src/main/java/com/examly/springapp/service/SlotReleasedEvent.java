@@ -0,0 +1,11 @@
+package com.examly.springapp.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Published when an appointment gives its slot back (cancel, reject, delete). Listeners that
+ * use the transactional phase only see it once the change is committed.
+ */
+public record SlotReleasedEvent(Long doctorId, LocalDate date, LocalTime time) {
+}
@@ -0,0 +1,96 @@
+package com.examly.springapp.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.examly.springapp.model.JwtPrincipal;
+import com.examly.springapp.model.RevokedToken;
+import com.examly.springapp.model.VerifiedTokenCache;
+import com.examly.springapp.repository.RevokedTokenRepository;
+
+/**
+ * Revoked token ids (jti) checked on every authenticated request with a single hash lookup.
+ * Entries live until the token's own expiry, after which the token is rejected anyway.
+ *
+ * The revoked_token table is the durable copy: it is loaded before the application serves
+ * requests, so a restart does not bring logged-out tokens back. A reload replaces the in-memory
+ * set with the table's contents, keeping only revocations whose row is not committed yet.
+ */
+@Service
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    // Replaced as a whole by load(); writes to it happen under this service's monitor
+    private volatile Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    // Revocations whose transaction has not finished, so a reload cannot see their rows yet
+    private final Map<String, Instant> pending = new ConcurrentHashMap<>();
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  VerifiedTokenCache verifiedTokenCache) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.verifiedTokenCache = verifiedTokenCache;
+    }
+
+    @PostConstruct
+    public synchronized void load() {
+        List<RevokedToken> live = revokedTokenRepository.findByExpiresAtAfter(Instant.now());
+        Map<String, Instant> loaded = new ConcurrentHashMap<>();
+        for (RevokedToken token : live) {
+            loaded.put(token.getTokenId(), token.getExpiresAt());
+        }
+        loaded.putAll(pending);
+        revoked = loaded;
+        System.out.println("✅ Token revocation list loaded with " + live.size() + " revoked tokens");
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && revoked.containsKey(tokenId);
+    }
+
+    /**
+     * Revokes the token for the rest of its lifetime and drops it from the verified token cache.
+     * Tokens issued without a jti cannot be revoked and simply run out.
+     */
+    @Transactional
+    public boolean revoke(String token, JwtPrincipal principal) {
+        verifiedTokenCache.evict(token);
+        String tokenId = principal.tokenId();
+        Instant expiresAt = principal.expiresAt();
+        if (tokenId == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return false;
+        }
+        pending.put(tokenId, expiresAt);
+        TransactionCallbacks.afterCompletion(() -> pending.remove(tokenId, expiresAt));
+        // The row is flushed first, so a failed insert never leaves a revocation that a restart forgets
+        revokedTokenRepository.saveAndFlush(new RevokedToken(tokenId, expiresAt));
+        synchronized (this) {
+            revoked.put(tokenId, expiresAt);
+        }
+        return true;
+    }
+
+    // Drops ids whose tokens have expired
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.purge-interval-ms:60000}")
+    @Transactional
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        revokedTokenRepository.deleteExpired(now);
+        synchronized (this) {
+            revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        }
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+}
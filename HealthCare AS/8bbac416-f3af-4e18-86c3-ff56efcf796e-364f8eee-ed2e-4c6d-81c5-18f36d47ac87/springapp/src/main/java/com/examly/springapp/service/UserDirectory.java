@@ -0,0 +1,229 @@
+package com.examly.springapp.service;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.examly.springapp.model.Admin;
+import com.examly.springapp.model.Doctor;
+import com.examly.springapp.model.Patient;
+import com.examly.springapp.model.Role;
+import com.examly.springapp.model.UserIdentity;
+import com.examly.springapp.repository.AdminRepository;
+import com.examly.springapp.repository.DoctorRepository;
+import com.examly.springapp.repository.PatientRepository;
+import com.examly.springapp.repository.UserIdentityRepository;
+
+/**
+ * Resolves an email to its role and entity id with one primary-key lookup on user_identity,
+ * usually answered from memory, instead of probing the patient, doctor and admin tables in turn.
+ *
+ * Patient, doctor and admin writes that go through the services record themselves here. Users
+ * written any other way (seed data, direct repository saves) are found by the old three-table
+ * probe on a miss and recorded then. Every answer that matters (findUser, findIdentity,
+ * isRegistered) loads the entity and checks that its email still matches, so a stale row heals
+ * itself on first use; only {@link #resolve} answers from the directory alone.
+ */
+@Service
+public class UserDirectory {
+
+    public static final int MAX_ENTRIES_LIMIT = 1_000_000;
+
+    private final UserIdentityRepository userIdentityRepository;
+    private final PatientRepository patientRepository;
+    private final DoctorRepository doctorRepository;
+    private final AdminRepository adminRepository;
+    private final int maxEntries;
+
+    private final Map<String, Identity> identities = new ConcurrentHashMap<>();
+
+    public UserDirectory(UserIdentityRepository userIdentityRepository,
+                         PatientRepository patientRepository,
+                         DoctorRepository doctorRepository,
+                         AdminRepository adminRepository,
+                         @Value("${users.directory.cache.max-entries:10000}") int maxEntries) {
+        if (maxEntries < 1 || maxEntries > MAX_ENTRIES_LIMIT) {
+            throw new IllegalArgumentException("users.directory.cache.max-entries must be between 1 and " + MAX_ENTRIES_LIMIT);
+        }
+        this.userIdentityRepository = userIdentityRepository;
+        this.patientRepository = patientRepository;
+        this.doctorRepository = doctorRepository;
+        this.adminRepository = adminRepository;
+        this.maxEntries = maxEntries;
+    }
+
+    public Optional<Identity> resolve(String email) {
+        String key = normalize(email);
+        if (key == null) {
+            return Optional.empty();
+        }
+        Identity identity = identities.get(key);
+        if (identity != null) {
+            return Optional.of(identity);
+        }
+        identity = userIdentityRepository.findById(key)
+                .map(row -> new Identity(row.getEmail(), row.getRole(), row.getEntityId()))
+                .orElse(null);
+        if (identity == null) {
+            identity = probe(email);
+            if (identity == null) {
+                return Optional.empty();
+            }
+            try {
+                userIdentityRepository.save(identity.toRow());
+            } catch (DataIntegrityViolationException e) {
+                // Another request recorded the same user first
+            }
+        }
+        cache(identity);
+        return Optional.of(identity);
+    }
+
+    // Checked against the user itself, so a row that outlived its user does not block the email
+    public boolean isRegistered(String email) {
+        return findUser(email) != null;
+    }
+
+    /**
+     * The Patient, Doctor or Admin with this email, or null. One lookup by id once the
+     * identity is known.
+     */
+    public Object findUser(String email) {
+        Verified verified = verify(email);
+        return verified != null ? verified.user() : null;
+    }
+
+    // Like resolve, but only for an identity whose user still exists under this email
+    public Optional<Identity> findIdentity(String email) {
+        return Optional.ofNullable(verify(email)).map(Verified::identity);
+    }
+
+    /**
+     * Points the email at the user. The directory row is written in the caller's transaction and
+     * the in-memory copy follows once it commits, so a rolled-back write is never served.
+     */
+    @Transactional
+    public void record(Role role, Long entityId, String email) {
+        String key = normalize(email);
+        if (key == null || entityId == null) {
+            return;
+        }
+        userIdentityRepository.deleteOtherEmails(role, entityId, key);
+        Identity identity = new Identity(key, role, entityId);
+        userIdentityRepository.save(identity.toRow());
+        TransactionCallbacks.afterCommit(() -> {
+            evict(role, entityId);
+            cache(identity);
+        });
+    }
+
+    // Evicted right away and again after commit, so a read racing the delete cannot put the row back
+    @Transactional
+    public void forget(Role role, Long entityId) {
+        userIdentityRepository.deleteByEntity(role, entityId);
+        evict(role, entityId);
+        TransactionCallbacks.afterCommit(() -> evict(role, entityId));
+    }
+
+    @Transactional
+    public void forget(String email) {
+        String key = normalize(email);
+        if (key != null) {
+            userIdentityRepository.deleteById(key);
+            identities.remove(key);
+            TransactionCallbacks.afterCommit(() -> identities.remove(key));
+        }
+    }
+
+    public static String normalize(String email) {
+        if (email == null || email.isBlank()) {
+            return null;
+        }
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private Verified verify(String email) {
+        Optional<Identity> identity = resolve(email);
+        if (identity.isEmpty()) {
+            return null;
+        }
+        Object user = load(identity.get());
+        if (user != null) {
+            return new Verified(identity.get(), user);
+        }
+        // The row outlived its user or their email changed; drop it and look again
+        forget(email);
+        identity = resolve(email);
+        user = identity.map(this::load).orElse(null);
+        return user != null ? new Verified(identity.get(), user) : null;
+    }
+
+    private void evict(Role role, Long entityId) {
+        identities.values().removeIf(identity -> identity.role() == role && identity.entityId().equals(entityId));
+    }
+
+    private Object load(Identity identity) {
+        Object user = switch (identity.role()) {
+            case PATIENT -> patientRepository.findById(identity.entityId()).orElse(null);
+            case DOCTOR -> doctorRepository.findById(identity.entityId()).orElse(null);
+            case ADMIN -> adminRepository.findById(identity.entityId()).orElse(null);
+        };
+        return user != null && identity.email().equals(normalize(emailOf(user))) ? user : null;
+    }
+
+    // The lookup this directory replaces, kept for users it has not seen yet
+    private Identity probe(String email) {
+        String key = normalize(email);
+        Optional<Patient> patient = patientRepository.findByEmail(email);
+        if (patient.isPresent()) {
+            return new Identity(key, Role.PATIENT, patient.get().getId());
+        }
+        Optional<Doctor> doctor = doctorRepository.findByEmail(email);
+        if (doctor.isPresent()) {
+            return new Identity(key, Role.DOCTOR, doctor.get().getId());
+        }
+        return adminRepository.findByEmail(email)
+                .map(admin -> new Identity(key, Role.ADMIN, admin.getId()))
+                .orElse(null);
+    }
+
+    private void cache(Identity identity) {
+        if (identities.size() >= maxEntries) {
+            // Drop an arbitrary tenth; evicted users are read from user_identity again
+            int excess = identities.size() - maxEntries + Math.max(1, maxEntries / 10);
+            Iterator<String> keys = identities.keySet().iterator();
+            while (excess-- > 0 && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        identities.put(identity.email(), identity);
+    }
+
+    private static String emailOf(Object user) {
+        if (user instanceof Patient patient) {
+            return patient.getEmail();
+        } else if (user instanceof Doctor doctor) {
+            return doctor.getEmail();
+        } else if (user instanceof Admin admin) {
+            return admin.getEmail();
+        }
+        return null;
+    }
+
+    private record Verified(Identity identity, Object user) {
+    }
+
+    public record Identity(String email, Role role, Long entityId) {
+        UserIdentity toRow() {
+            return new UserIdentity(email, role, entityId);
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package com.examly.springapp.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.examly.springapp.model.Appointment;
+import com.examly.springapp.model.WaitlistEntry;
+import com.examly.springapp.model.WaitlistEntry.WaitlistStatus;
+import com.examly.springapp.repository.DoctorRepository;
+import com.examly.springapp.repository.WaitlistRepository;
+
+/**
+ * Patients wait for a doctor within a date window. When a slot is released it is offered to the
+ * longest-waiting patient for that (doctor, date) on a background thread: the slot is held for
+ * them and the entry becomes OFFERED until they accept (which books it), decline, or let the
+ * hold run out. Either of the latter passes the slot on to the next waiter, and the patient keeps
+ * their place for other slots.
+ *
+ * Waiting entries are mirrored in memory as one ordered set of entry ids per (doctor, date), so
+ * finding the next waiter is a pollFirst rather than a table scan. Offers are slot holds and
+ * accepting goes through {@link AppointmentService#bookAppointment}, so an offer competes with
+ * direct bookings on the same atomic slot reservation and can never double-book.
+ */
+@Service
+public class WaitlistService {
+
+    public static final int MAX_WINDOW_DAYS = 31;
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private SlotHoldService slotHoldService;
+
+    private final TransactionTemplate transactionTemplate;
+    private final long offerTtlSeconds;
+
+    // doctorId -> date -> waiting entry ids, oldest first
+    private final Map<Long, Map<LocalDate, ConcurrentSkipListSet<Long>>> queues = new ConcurrentHashMap<>();
+    // Entries that are currently waiting. Removing an entry from here is what claims it for an offer.
+    private final Map<Long, Waiter> waiters = new ConcurrentHashMap<>();
+    // Open offers by entry id. Removing one is what claims it for accept, decline or expiry.
+    private final Map<Long, Offer> offers = new ConcurrentHashMap<>();
+    // The same offers by slot key -> entry id, so a released slot finds its lapsed offers directly
+    private final Map<String, Map<Long, Offer>> offersBySlot = new ConcurrentHashMap<>();
+
+    public WaitlistService(PlatformTransactionManager transactionManager,
+                           @Value("${waitlist.offer.ttl-seconds:900}") long offerTtlSeconds) {
+        if (offerTtlSeconds < 1 || offerTtlSeconds > SlotHoldService.MAX_TTL_SECONDS) {
+            throw new IllegalArgumentException("waitlist.offer.ttl-seconds must be between 1 and " + SlotHoldService.MAX_TTL_SECONDS);
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.offerTtlSeconds = offerTtlSeconds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadWaitingEntries() {
+        Integer reopened = transactionTemplate.execute(status -> waitlistRepository.reopenOffers(WaitlistStatus.OFFERED, WaitlistStatus.WAITING));
+        List<WaitlistEntry> entries = waitlistRepository.findByStatusAndToDateGreaterThanEqual(WaitlistStatus.WAITING, LocalDate.now());
+        entries.forEach(entry -> index(Waiter.from(entry)));
+        System.out.println("✅ Waitlist loaded with " + entries.size() + " waiting entries (" + reopened + " open offers reopened)");
+    }
+
+    public WaitlistEntry join(Long patientId, Long doctorId, LocalDate fromDate, LocalDate toDate, String reason) {
+        if (patientId == null || doctorId == null || fromDate == null || toDate == null || reason == null || reason.trim().isEmpty()) {
+            throw new IllegalArgumentException("Doctor, date window and reason are required");
+        }
+        if (fromDate.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Cannot join the waitlist for past dates");
+        }
+        if (toDate.isBefore(fromDate)) {
+            throw new IllegalArgumentException("End date cannot be before start date");
+        }
+        if (toDate.toEpochDay() - fromDate.toEpochDay() >= MAX_WINDOW_DAYS) {
+            throw new IllegalArgumentException("Waitlist window cannot exceed " + MAX_WINDOW_DAYS + " days");
+        }
+        if (!doctorRepository.existsById(doctorId)) {
+            throw new IllegalArgumentException("Doctor not found with ID: " + doctorId);
+        }
+
+        WaitlistEntry entry = waitlistRepository.save(WaitlistEntry.builder()
+                .patientId(patientId)
+                .doctorId(doctorId)
+                .fromDate(fromDate)
+                .toDate(toDate)
+                .reason(reason.trim())
+                .status(WaitlistStatus.WAITING)
+                .createdAt(LocalDateTime.now())
+                .build());
+        index(Waiter.from(entry));
+        return entry;
+    }
+
+    public List<WaitlistEntry> getEntriesForPatient(Long patientId) {
+        return waitlistRepository.findByPatientIdOrderByCreatedAtDesc(patientId);
+    }
+
+    public String leave(Long entryId, Long patientId, boolean isAdmin) {
+        WaitlistEntry entry = waitlistRepository.findById(entryId).orElse(null);
+        if (entry == null) {
+            return "Waitlist entry not found";
+        }
+        if (!isAdmin && !entry.getPatientId().equals(patientId)) {
+            return "You can only leave your own waitlist entries";
+        }
+        Waiter waiter;
+        Offer offer = null;
+        if (entry.getStatus() == WaitlistStatus.WAITING) {
+            waiter = waiters.remove(entryId);
+        } else if (entry.getStatus() == WaitlistStatus.OFFERED) {
+            offer = claimOffer(entryId);
+            waiter = offer != null ? offer.waiter() : null;
+        } else {
+            return "Only waiting entries can be cancelled";
+        }
+        if (waiter == null) {
+            return "Entry is being offered a slot, please check your waitlist entries";
+        }
+        unindex(waiter);
+        entry.setStatus(WaitlistStatus.CANCELLED);
+        entry.clearOffer();
+        waitlistRepository.save(entry);
+        if (offer != null) {
+            // The held slot goes to the next waiter
+            slotHoldService.release(offer.holdId(), waiter.patientId(), true);
+        }
+        return "Waitlist entry cancelled successfully";
+    }
+
+    /**
+     * Books the offered slot. If that fails (e.g. the hold ran out and someone else booked the
+     * slot) the patient goes back to waiting and the hold is released for the next waiter.
+     */
+    public String acceptOffer(Long entryId, Long patientId, boolean isAdmin) {
+        String refusal = checkOfferOwner(entryId, patientId, isAdmin);
+        if (refusal != null) {
+            return refusal;
+        }
+        Offer offer = claimOffer(entryId);
+        if (offer == null) {
+            return "No open offer for this waitlist entry";
+        }
+        Waiter waiter = offer.waiter();
+        try {
+            Appointment appointment = transactionTemplate.execute(status -> {
+                Appointment booked = appointmentService.bookAppointment(
+                        waiter.patientId(), waiter.doctorId(), offer.date(), offer.time(), waiter.reason());
+                WaitlistEntry entry = waitlistRepository.findById(entryId).orElseThrow();
+                entry.setStatus(WaitlistStatus.PROMOTED);
+                entry.setAppointmentId(booked.getId());
+                entry.clearOffer();
+                waitlistRepository.save(entry);
+                return booked;
+            });
+            unindex(waiter);
+            System.out.println("✅ Waitlist entry " + entryId + " accepted offer, appointment " + appointment.getId());
+            return "Offer accepted, appointment " + appointment.getId() + " booked successfully";
+        } catch (RuntimeException e) {
+            backToWaiting(offer);
+            // Whatever failed, the slot must not stay held for a patient who is not offered it any more
+            slotHoldService.release(offer.holdId(), waiter.patientId(), true);
+            return "Offer could not be booked: " + e.getMessage();
+        }
+    }
+
+    // Gives the offered slot to the next waiter; the patient keeps waiting for other slots
+    public String declineOffer(Long entryId, Long patientId, boolean isAdmin) {
+        String refusal = checkOfferOwner(entryId, patientId, isAdmin);
+        if (refusal != null) {
+            return refusal;
+        }
+        Offer offer = claimOffer(entryId);
+        if (offer == null) {
+            return "No open offer for this waitlist entry";
+        }
+        backToWaiting(offer);
+        slotHoldService.release(offer.holdId(), offer.waiter().patientId(), true);
+        return "Offer declined successfully";
+    }
+
+    // Past days leave the queues and entries whose window has passed expire
+    @Scheduled(cron = "${waitlist.prune-cron:0 10 0 * * *}")
+    public void pruneExpired() {
+        LocalDate today = LocalDate.now();
+        queues.values().forEach(days -> days.keySet().removeIf(date -> date.isBefore(today)));
+        waiters.values().removeIf(waiter -> waiter.toDate().isBefore(today));
+        Integer expired = transactionTemplate.execute(status ->
+                waitlistRepository.expireWaitingBefore(today, WaitlistStatus.WAITING, WaitlistStatus.EXPIRED));
+        if (expired != null && expired > 0) {
+            System.out.println("🧹 Expired " + expired + " waitlist entries whose window has passed");
+        }
+    }
+
+    @Async("waitlistExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotReleased(SlotReleasedEvent event) {
+        LocalDate date = event.date();
+        String slotKey = Appointment.slotKey(event.doctorId(), date, event.time());
+        // An offer whose hold ran out unanswered releases its slot too
+        Map<Long, Offer> slotOffers = offersBySlot.get(slotKey);
+        if (slotOffers != null) {
+            for (Offer offer : slotOffers.values()) {
+                if (!slotHoldService.isHeld(offer.holdId()) && claimOffer(offer)) {
+                    backToWaiting(offer);
+                }
+            }
+        }
+        if (date.atTime(event.time()).isBefore(LocalDateTime.now())) {
+            return;
+        }
+        Map<LocalDate, ConcurrentSkipListSet<Long>> days = queues.get(event.doctorId());
+        ConcurrentSkipListSet<Long> queue = days != null ? days.get(date) : null;
+        if (queue == null) {
+            return;
+        }
+
+        // Waiters who already passed on this slot keep their place but are not asked again
+        List<Long> passed = new ArrayList<>();
+        try {
+            Long entryId;
+            while ((entryId = queue.pollFirst()) != null) {
+                Waiter waiter = waiters.remove(entryId);
+                if (waiter == null) {
+                    continue; // offered or cancelled through another date of its window
+                }
+                if (waiter.passedSlots().contains(slotKey)) {
+                    waiters.put(waiter.entryId(), waiter);
+                    passed.add(waiter.entryId());
+                    continue;
+                }
+                OfferResult result;
+                try {
+                    result = offer(waiter, date, event.time(), slotKey);
+                } catch (RuntimeException e) {
+                    // Unexpected failure (database, transaction): the waiter keeps their place
+                    System.err.println("Error offering slot to waitlist entry " + waiter.entryId() + ": " + e.getMessage());
+                    result = OfferResult.SLOT_TAKEN;
+                }
+                switch (result) {
+                    case OFFERED:
+                        return;
+                    case SLOT_TAKEN:
+                        waiters.put(waiter.entryId(), waiter);
+                        queue.add(waiter.entryId());
+                        return;
+                    case UNBOOKABLE:
+                        unindex(waiter);
+                        break;
+                }
+            }
+        } finally {
+            queue.addAll(passed);
+        }
+    }
+
+    private OfferResult offer(Waiter waiter, LocalDate date, LocalTime time, String slotKey) {
+        return transactionTemplate.execute(status -> {
+            WaitlistEntry entry = waitlistRepository.findById(waiter.entryId()).orElse(null);
+            if (entry == null || entry.getStatus() != WaitlistStatus.WAITING) {
+                return OfferResult.UNBOOKABLE;
+            }
+            SlotHoldService.Hold hold;
+            try {
+                hold = slotHoldService.holdForOffer(waiter.patientId(), waiter.doctorId(), date, time, offerTtlSeconds);
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                // Booked or held directly in the meantime
+                return OfferResult.SLOT_TAKEN;
+            }
+            TransactionCallbacks.onRollback(() -> slotHoldService.discard(hold.id()));
+            entry.setStatus(WaitlistStatus.OFFERED);
+            entry.setOfferedDate(date);
+            entry.setOfferedTime(time);
+            entry.setOfferExpiresAt(LocalDateTime.ofInstant(hold.expiresAt(), ZoneId.systemDefault()));
+            waitlistRepository.save(entry);
+            Offer offer = new Offer(waiter.entryId(), waiter, hold.id(), date, time, slotKey);
+            TransactionCallbacks.afterCommit(() -> openOffer(offer));
+            System.out.println("📨 Waitlist entry " + entry.getId() + " offered " + date + " at " + time);
+            return OfferResult.OFFERED;
+        });
+    }
+
+    // Ends an offer that was declined, lapsed or could not be booked; the waiter keeps their place
+    private void backToWaiting(Offer offer) {
+        Waiter waiter = offer.waiter();
+        waiter.passedSlots().add(offer.slotKey());
+        try {
+            transactionTemplate.executeWithoutResult(status -> waitlistRepository.findById(offer.entryId()).ifPresent(entry -> {
+                if (entry.getStatus() == WaitlistStatus.OFFERED) {
+                    entry.setStatus(WaitlistStatus.WAITING);
+                    entry.clearOffer();
+                    waitlistRepository.save(entry);
+                }
+            }));
+        } catch (RuntimeException e) {
+            // Still indexed below; the row is reopened on the next restart at the latest
+            System.err.println("Error reopening waitlist entry " + offer.entryId() + ": " + e.getMessage());
+        }
+        if (!waiter.toDate().isBefore(LocalDate.now())) {
+            index(waiter);
+        }
+    }
+
+    private String checkOfferOwner(Long entryId, Long patientId, boolean isAdmin) {
+        WaitlistEntry entry = waitlistRepository.findById(entryId).orElse(null);
+        if (entry == null) {
+            return "Waitlist entry not found";
+        }
+        if (!isAdmin && !entry.getPatientId().equals(patientId)) {
+            return "You can only answer your own waitlist offers";
+        }
+        return null;
+    }
+
+    private void openOffer(Offer offer) {
+        offers.put(offer.entryId(), offer);
+        offersBySlot.compute(offer.slotKey(), (key, slotOffers) -> {
+            Map<Long, Offer> updated = slotOffers != null ? slotOffers : new ConcurrentHashMap<>();
+            updated.put(offer.entryId(), offer);
+            return updated;
+        });
+    }
+
+    // Null when the offer was already claimed
+    private Offer claimOffer(Long entryId) {
+        Offer offer = offers.remove(entryId);
+        if (offer != null) {
+            forgetSlot(offer);
+        }
+        return offer;
+    }
+
+    private boolean claimOffer(Offer offer) {
+        if (!offers.remove(offer.entryId(), offer)) {
+            return false;
+        }
+        forgetSlot(offer);
+        return true;
+    }
+
+    private void forgetSlot(Offer offer) {
+        offersBySlot.computeIfPresent(offer.slotKey(), (key, slotOffers) -> {
+            slotOffers.remove(offer.entryId(), offer);
+            return slotOffers.isEmpty() ? null : slotOffers;
+        });
+    }
+
+    private void index(Waiter waiter) {
+        waiters.put(waiter.entryId(), waiter);
+        Map<LocalDate, ConcurrentSkipListSet<Long>> days = queues.computeIfAbsent(waiter.doctorId(), id -> new ConcurrentHashMap<>());
+        for (LocalDate date = waiter.fromDate(); !date.isAfter(waiter.toDate()); date = date.plusDays(1)) {
+            days.computeIfAbsent(date, d -> new ConcurrentSkipListSet<>()).add(waiter.entryId());
+        }
+    }
+
+    private void unindex(Waiter waiter) {
+        Map<LocalDate, ConcurrentSkipListSet<Long>> days = queues.get(waiter.doctorId());
+        if (days == null) {
+            return;
+        }
+        for (LocalDate date = waiter.fromDate(); !date.isAfter(waiter.toDate()); date = date.plusDays(1)) {
+            ConcurrentSkipListSet<Long> queue = days.get(date);
+            if (queue != null) {
+                queue.remove(waiter.entryId());
+            }
+        }
+    }
+
+    private enum OfferResult {
+        OFFERED,
+        SLOT_TAKEN,
+        UNBOOKABLE
+    }
+
+    // passedSlots: slots this waiter declined or let lapse, so they are not offered again
+    private record Waiter(Long entryId, Long patientId, Long doctorId, LocalDate fromDate, LocalDate toDate, String reason,
+                          Set<String> passedSlots) {
+        static Waiter from(WaitlistEntry entry) {
+            return new Waiter(entry.getId(), entry.getPatientId(), entry.getDoctorId(),
+                    entry.getFromDate(), entry.getToDate(), entry.getReason(), ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    private record Offer(Long entryId, Waiter waiter, String holdId, LocalDate date, LocalTime time, String slotKey) {
+    }
+}
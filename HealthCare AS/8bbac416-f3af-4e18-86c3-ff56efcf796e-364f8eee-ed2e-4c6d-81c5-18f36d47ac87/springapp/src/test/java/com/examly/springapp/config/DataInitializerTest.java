@@ -0,0 +1,84 @@
+package com.examly.springapp.config;
+
+import com.examly.springapp.model.*;
+import com.examly.springapp.repository.*;
+import com.examly.springapp.service.AppointmentService;
+import com.examly.springapp.support.ClinicFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The startup fix-ups for appointment rows written before the current schema.
+ */
+@SpringBootTest
+public class DataInitializerTest {
+
+    @Autowired
+    private ClinicFixture clinicFixture;
+    @Autowired
+    private DataInitializer dataInitializer;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Patient patient;
+    private Doctor doctor;
+    private LocalDate date;
+
+    @BeforeEach
+    void setup() {
+        ClinicFixture.Clinic clinic = clinicFixture.reset();
+        patient = clinic.patient();
+        doctor = clinic.doctor();
+        date = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    void testBackfillKeysOldRowsAndLeavesDuplicatesOut() {
+        Appointment first = appointmentService.bookAppointment(patient.getId(), doctor.getId(), date, LocalTime.of(9, 0), "Check-up");
+        Appointment second = appointmentService.bookAppointment(patient.getId(), doctor.getId(), date, LocalTime.of(9, 30), "Check-up");
+        Appointment cancelled = appointmentService.bookAppointment(patient.getId(), doctor.getId(), date, LocalTime.of(10, 0), "Check-up");
+        // As written before active_slot existed: no keys, and a double booking the index would have refused
+        jdbcTemplate.update("UPDATE appointment SET active_slot = NULL");
+        jdbcTemplate.update("UPDATE appointment SET appointment_time = '09:00:00' WHERE id = ?", second.getId());
+        jdbcTemplate.update("UPDATE appointment SET status = 'CANCELLED' WHERE id = ?", cancelled.getId());
+
+        dataInitializer.backfillActiveSlots();
+
+        assertEquals(Appointment.slotKey(doctor.getId(), date, LocalTime.of(9, 0)), activeSlotOf(first.getId()));
+        assertNull(activeSlotOf(second.getId()));
+        assertNull(activeSlotOf(cancelled.getId()));
+
+        // Running it again changes nothing
+        dataInitializer.backfillActiveSlots();
+        assertNull(activeSlotOf(second.getId()));
+    }
+
+    @Test
+    void testSequenceIsMovedPastExistingIds() {
+        Appointment appointment = appointmentService.bookAppointment(patient.getId(), doctor.getId(), date, LocalTime.of(9, 0), "Check-up");
+        // As left behind by AUTO_INCREMENT ids
+        jdbcTemplate.update("UPDATE appointment_seq SET next_val = 1");
+
+        dataInitializer.alignAppointmentSequence();
+        long nextVal = jdbcTemplate.queryForObject("SELECT next_val FROM appointment_seq", Long.class);
+        assertEquals(appointment.getId() + Appointment.ID_ALLOCATION_SIZE + 1, nextVal);
+
+        // Already past the highest id: left alone
+        dataInitializer.alignAppointmentSequence();
+        assertEquals(nextVal, jdbcTemplate.queryForObject("SELECT next_val FROM appointment_seq", Long.class));
+    }
+
+    private String activeSlotOf(Long id) {
+        return jdbcTemplate.queryForObject("SELECT active_slot FROM appointment WHERE id = ?", String.class, id);
+    }
+}
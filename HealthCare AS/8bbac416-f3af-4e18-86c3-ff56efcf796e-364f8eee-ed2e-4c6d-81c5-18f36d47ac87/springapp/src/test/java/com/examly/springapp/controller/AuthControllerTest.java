@@ -0,0 +1,111 @@
+package com.examly.springapp.controller;
+
+import com.examly.springapp.dto.AuthRequest;
+import com.examly.springapp.model.Admin;
+import com.examly.springapp.model.Role;
+import com.examly.springapp.repository.AdminRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Login loads the user once, upgrades weak hashes and is turned away rather than queued without bound.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "security.password.bcrypt-strength=5",
+        "security.password.hashing-threads=1",
+        "security.password.hashing-queue-capacity=0"
+})
+@AutoConfigureMockMvc
+public class AuthControllerTest {
+
+    private static final String EMAIL = "login.admin@example.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private AdminRepository adminRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    @Qualifier("passwordHashingExecutor")
+    private ThreadPoolTaskExecutor passwordHashingExecutor;
+
+    private Admin admin;
+
+    @BeforeEach
+    void setUp() {
+        adminRepository.findByEmail(EMAIL).ifPresent(adminRepository::delete);
+        // Hashed below the configured strength, as passwords from before a strength increase are
+        admin = adminRepository.save(Admin.builder().name("Login Admin").email(EMAIL).phoneNumber("9876543210")
+                .password(new BCryptPasswordEncoder(4).encode("admin123")).role(Role.ADMIN).build());
+    }
+
+    @Test
+    void testLoginRehashesAndLoadsTheUserOnce() throws Exception {
+        login("admin123")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").exists())
+                .andExpect(jsonPath("$.user.id").value(admin.getId()))
+                .andExpect(jsonPath("$.user.role").value("ADMIN"));
+        String rehashed = adminRepository.findById(admin.getId()).orElseThrow().getPassword();
+        assertTrue(rehashed.startsWith("$2a$05$"), rehashed);
+
+        // Directory already warm and hash already current: one load by id, no second lookup
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        login("admin123").andExpect(status().isOk());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getEntityLoadCount());
+        assertEquals(rehashed, adminRepository.findById(admin.getId()).orElseThrow().getPassword());
+
+        login("wrong-password").andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testLoginIsTurnedAwayWhenHashingPoolIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch busy = new CountDownLatch(1);
+        passwordHashingExecutor.execute(() -> {
+            busy.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            busy.await();
+            login("admin123").andExpect(status().isServiceUnavailable());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private ResultActions login(String password) throws Exception {
+        return mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AuthRequest(EMAIL, password))));
+    }
+}
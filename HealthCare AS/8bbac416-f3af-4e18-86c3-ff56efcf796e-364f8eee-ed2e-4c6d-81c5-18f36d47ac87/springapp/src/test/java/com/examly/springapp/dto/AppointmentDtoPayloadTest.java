@@ -0,0 +1,77 @@
+package com.examly.springapp.dto;
+
+import com.examly.springapp.model.*;
+import com.examly.springapp.support.AllocationMeter;
+import com.examly.springapp.support.AllocationMeter.Cost;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the list payload of full Appointment entities with AppointmentDto for the same rows, and
+ * the bytes allocated while serializing them.
+ */
+public class AppointmentDtoPayloadTest {
+    private static final int ROWS = 1000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void testDtoListIsSmallerThanEntityList() throws Exception {
+        List<Appointment> entities = sampleAppointments();
+        List<AppointmentDto> dtos = entities.stream().map(AppointmentDto::from).toList();
+
+        int entityBytes = objectMapper.writeValueAsBytes(entities).length;
+        int dtoBytes = objectMapper.writeValueAsBytes(dtos).length;
+        Cost entityCost = AllocationMeter.measure(1, 1, () -> objectMapper.writeValueAsBytes(entities));
+        Cost dtoCost = AllocationMeter.measure(1, 1, () -> objectMapper.writeValueAsBytes(dtos));
+
+        System.out.println(ROWS + " appointments: entities " + entityBytes + " bytes (" + entityCost
+                + "), DTOs " + dtoBytes + " bytes (" + dtoCost + ")");
+        assertTrue(dtoBytes * 2 < entityBytes, "DTO payload should be well under half the entity payload");
+        assertTrue(dtoCost.bytes() < entityCost.bytes());
+    }
+
+    @Test
+    void testDtoKeepsNestedShapeUsedByClients() throws Exception {
+        String json = objectMapper.writeValueAsString(AppointmentDto.from(sampleAppointments().get(0)));
+        assertTrue(json.contains("\"doctor\":{\"id\":1,\"name\":\"Dr. Smith\",\"specialization\":\"Cardiology\"}"));
+        assertTrue(json.contains("\"patient\":{\"id\":1,\"name\":\"John Doe\"}"));
+        assertFalse(json.contains("bio"));
+    }
+
+    private static List<Appointment> sampleAppointments() {
+        Doctor doctor = Doctor.builder().id(1L).name("Dr. Smith").specialization("Cardiology").clinicName("City Heart Clinic")
+                .email("smith@hospital.com").phoneNumber("9876543210").address("42 Harbour Road, Suite 5, Springfield")
+                .bio("Consultant cardiologist with a focus on preventive care, heart failure management and cardiac rehabilitation.")
+                .qualifications("MBBS, MD (Internal Medicine), DM (Cardiology), FACC").experienceYears(15).consultationFee(800.0)
+                .build();
+        Patient patient = Patient.builder().id(1L).name("John Doe").email("john.doe@example.com").phoneNumber("1234567890")
+                .dateOfBirth(LocalDate.of(1990, 1, 1)).build();
+        List<Appointment> appointments = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            appointments.add(Appointment.builder()
+                    .id((long) i + 1)
+                    .patient(patient)
+                    .doctor(doctor)
+                    .appointmentDate(LocalDate.of(2030, 1, 1).plusDays(i / 16))
+                    .appointmentTime(LocalTime.of(9, 0).plusMinutes(30L * (i % 16)))
+                    .reason("Follow-up")
+                    .status(AppointmentStatus.SCHEDULED)
+                    .createdAt(LocalDateTime.of(2029, 12, 1, 10, 0))
+                    .build());
+        }
+        return appointments;
+    }
+}
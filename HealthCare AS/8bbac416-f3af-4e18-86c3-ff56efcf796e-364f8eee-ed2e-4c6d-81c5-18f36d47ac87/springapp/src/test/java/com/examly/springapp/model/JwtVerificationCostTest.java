@@ -0,0 +1,61 @@
+package com.examly.springapp.model;
+
+import com.examly.springapp.support.AllocationMeter;
+import com.examly.springapp.support.AllocationMeter.Cost;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the per-request cost of the single verification in JwtFilter with the previous path,
+ * which parsed the token four times and built a new key and parser for each parse.
+ */
+public class JwtVerificationCostTest {
+    private static final int WARMUP = 5_000;
+    private static final int REQUESTS = 20_000;
+    // JwtUtil's signing secret, needed to replay the old path
+    private static final byte[] SECRET = "MySuperSecretKeyForJWTGeneration12345".getBytes();
+
+    private final JwtUtil jwtUtil = new JwtUtil();
+
+    @Test
+    void testSingleVerificationIsCheaperThanFourParses() throws Exception {
+        String token = jwtUtil.generateToken("bench@example.com", Role.PATIENT);
+        Cost previous = AllocationMeter.measure(WARMUP, REQUESTS, () -> previousPath(token));
+        Cost current = AllocationMeter.measure(WARMUP, REQUESTS, () -> jwtUtil.verify(token));
+
+        System.out.println("JWT per request: previous " + previous + ", single verify " + current);
+        assertTrue(current.bytes() * 3 < previous.bytes(), "One parse should allocate well under a third of four");
+    }
+
+    @Test
+    void testVerifyYieldsSubjectRoleAndExpiry() {
+        JwtPrincipal principal = jwtUtil.verify(jwtUtil.generateToken("doc@example.com", Role.DOCTOR));
+        assertEquals("doc@example.com", principal.getName());
+        assertEquals("ROLE_DOCTOR", principal.role());
+        assertTrue(principal.expiresAt().isAfter(new Date().toInstant()));
+
+        String tampered = jwtUtil.generateToken("doc@example.com", Role.DOCTOR) + "x";
+        assertThrows(Exception.class, () -> jwtUtil.verify(tampered));
+    }
+
+    // isTokenValid (parse + expiry parse), extractUsername, extractClaim(role), as JwtFilter used to call them
+    private static void previousPath(String token) {
+        Claims claims = parse(token);
+        if (parse(token).getExpiration().before(new Date())) {
+            throw new IllegalStateException("expired");
+        }
+        assertNotNull(parse(token).getSubject());
+        assertNotNull(parse(token).get("role"));
+        assertNotNull(claims);
+    }
+
+    private static Claims parse(String token) {
+        return Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET)).build().parseClaimsJws(token).getBody();
+    }
+}
@@ -0,0 +1,52 @@
+package com.examly.springapp.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Repeat tokens are served from the cache, the cache stays bounded and evicted tokens are verified again.
+ */
+public class VerifiedTokenCacheTest {
+
+    private final JwtUtil jwtUtil = new JwtUtil();
+
+    @Test
+    void testRepeatTokenIsAHit() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtil, 100);
+        String token = jwtUtil.generateToken("patient@example.com", Role.PATIENT);
+
+        JwtPrincipal first = cache.verify(token);
+        assertSame(first, cache.verify(token));
+        assertSame(first, cache.verify(token));
+        VerifiedTokenCache.Stats stats = cache.getStats();
+        assertEquals(2, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.size());
+
+        cache.evict(token);
+        assertEquals(0, cache.getStats().size());
+        assertNotSame(first, cache.verify(token));
+        assertEquals(2, cache.getStats().misses());
+    }
+
+    @Test
+    void testBadTokensAreNeverCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtil, 100);
+        String tampered = jwtUtil.generateToken("patient@example.com", Role.PATIENT) + "x";
+        assertThrows(Exception.class, () -> cache.verify(tampered));
+        assertThrows(Exception.class, () -> cache.verify(tampered));
+        assertEquals(0, cache.getStats().size());
+    }
+
+    @Test
+    void testSizeStaysBounded() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtil, 20);
+        for (int i = 0; i < 200; i++) {
+            cache.verify(jwtUtil.generateToken("user" + i + "@example.com", Role.PATIENT));
+        }
+        VerifiedTokenCache.Stats stats = cache.getStats();
+        assertTrue(stats.size() <= 20, "size " + stats.size());
+        assertTrue(stats.evictions() >= 180);
+    }
+}
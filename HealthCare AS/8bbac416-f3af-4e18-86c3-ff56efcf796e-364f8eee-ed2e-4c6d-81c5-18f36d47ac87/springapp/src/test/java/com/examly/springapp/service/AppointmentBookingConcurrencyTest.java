@@ -0,0 +1,156 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.*;
+import com.examly.springapp.repository.*;
+import com.examly.springapp.support.ClinicFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class AppointmentBookingConcurrencyTest {
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS = 2000;
+    private static final int SLOTS = 8;
+
+    @Autowired
+    private ClinicFixture clinicFixture;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    private Patient patient;
+    private Doctor doctor;
+    private LocalDate date;
+
+    @BeforeEach
+    void setup() {
+        ClinicFixture.Clinic clinic = clinicFixture.reset();
+        patient = clinic.patient();
+        doctor = clinic.doctor();
+        date = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    void testConcurrentBookingsNeverDoubleBook() throws Exception {
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Throwable> unexpected = runConcurrently(i -> {
+            try {
+                appointmentService.bookAppointment(patient.getId(), doctor.getId(), date, slot(i), "Stress test booking");
+                booked.incrementAndGet();
+            } catch (IllegalStateException e) {
+                conflicts.incrementAndGet();
+            }
+        });
+
+        assertTrue(unexpected.isEmpty(), "Unexpected failures: " + unexpected);
+        assertEquals(SLOTS, booked.get());
+        assertEquals(ATTEMPTS - SLOTS, conflicts.get());
+        assertNoDuplicateActiveSlots();
+    }
+
+    @Test
+    void testUniqueIndexRejectsDuplicatesWithoutServiceChecks() throws Exception {
+        AtomicInteger inserted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Throwable> unexpected = runConcurrently(i -> {
+            try {
+                appointmentRepository.saveAndFlush(appointment(slot(i), AppointmentStatus.SCHEDULED));
+                inserted.incrementAndGet();
+            } catch (DataIntegrityViolationException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertTrue(unexpected.isEmpty(), "Unexpected failures: " + unexpected);
+        assertEquals(SLOTS, inserted.get());
+        assertEquals(ATTEMPTS - SLOTS, rejected.get());
+        assertNoDuplicateActiveSlots();
+    }
+
+    @Test
+    void testCancelledSlotCanBeBookedAgain() {
+        Appointment first = appointmentService.bookAppointment(patient.getId(), doctor.getId(), date, LocalTime.of(9, 0), "First booking");
+        assertThrows(IllegalStateException.class,
+                () -> appointmentService.bookAppointment(patient.getId(), doctor.getId(), date, LocalTime.of(9, 0), "Second booking"));
+
+        appointmentService.cancelAppointment(first.getId());
+        Appointment second = appointmentService.bookAppointment(patient.getId(), doctor.getId(), date, LocalTime.of(9, 0), "Second booking");
+
+        assertNotEquals(first.getId(), second.getId());
+        assertNoDuplicateActiveSlots();
+    }
+
+    private List<Throwable> runConcurrently(Attempt attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            final int n = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                attempt.run(n);
+                return null;
+            }));
+        }
+        start.countDown();
+        List<Throwable> unexpected = new ArrayList<>();
+        for (Future<?> future : futures) {
+            try {
+                future.get(2, TimeUnit.MINUTES);
+            } catch (java.util.concurrent.ExecutionException e) {
+                unexpected.add(e.getCause());
+            }
+        }
+        executor.shutdown();
+        return unexpected;
+    }
+
+    private void assertNoDuplicateActiveSlots() {
+        Map<String, Long> perSlot = appointmentRepository.findAll().stream()
+                .filter(a -> a.getStatus().holdsSlot())
+                .collect(Collectors.groupingBy(a -> a.getAppointmentDate() + " " + a.getAppointmentTime(), Collectors.counting()));
+        perSlot.forEach((slot, count) -> assertEquals(1L, count, "Slot double-booked: " + slot));
+    }
+
+    private LocalTime slot(int attempt) {
+        return LocalTime.of(9, 0).plusMinutes(30L * (attempt % SLOTS));
+    }
+
+    private Appointment appointment(LocalTime time, AppointmentStatus status) {
+        return Appointment.builder()
+                .patient(patient)
+                .doctor(doctor)
+                .appointmentDate(date)
+                .appointmentTime(time)
+                .reason("Direct insert")
+                .status(status)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface Attempt {
+        void run(int attempt) throws Exception;
+    }
+}
@@ -0,0 +1,94 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.*;
+import com.examly.springapp.repository.*;
+import com.examly.springapp.support.ClinicFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exports write every appointment of a bounded date range, chunk by chunk.
+ */
+@SpringBootTest
+public class AppointmentExportServiceTest {
+
+    @Autowired
+    private ClinicFixture clinicFixture;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private AppointmentExportService appointmentExportService;
+
+    private Patient patient;
+    private Doctor doctor;
+    private LocalDate date;
+
+    @BeforeEach
+    void setup() {
+        ClinicFixture.Clinic clinic = clinicFixture.reset();
+        patient = clinic.patient();
+        doctor = clinic.doctor();
+        date = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    void testExportStreamsEveryRowInRange() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            appointmentService.bookAppointment(patient.getId(), doctor.getId(), date, slot(i), "Export, \"quoted\"");
+        }
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        assertEquals(3, appointmentExportService.export(date, date, AppointmentExportService.Format.CSV, csv));
+        String[] lines = csv.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[1].contains(",\"Export, \"\"quoted\"\"\","), lines[1]);
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        assertEquals(0, appointmentExportService.export(date.plusDays(1), date.plusDays(2), AppointmentExportService.Format.NDJSON, ndjson));
+        assertEquals(0, ndjson.size());
+    }
+
+    @Test
+    void testExportContinuesAcrossChunks() throws Exception {
+        int total = AppointmentExportService.CHUNK_SIZE + 1;
+        List<Appointment> rows = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            rows.add(Appointment.builder().patient(patient).doctor(doctor)
+                    .appointmentDate(date.plusDays(i / 48)).appointmentTime(LocalTime.MIDNIGHT.plusMinutes(30L * (i % 48)))
+                    .reason("Archive").status(AppointmentStatus.COMPLETED).createdAt(LocalDateTime.now()).build());
+        }
+        appointmentRepository.saveAll(rows);
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        assertEquals(total, appointmentExportService.export(date, date.plusDays(30), AppointmentExportService.Format.NDJSON, ndjson));
+        assertEquals(total, ndjson.toString(StandardCharsets.UTF_8).split("\n").length);
+    }
+
+    @Test
+    void testExportWindowIsBounded() {
+        assertEquals(AppointmentExportService.Format.CSV, appointmentExportService.validate(date,
+                date.plusDays(AppointmentExportService.MAX_WINDOW_DAYS - 1), "csv"));
+        assertThrows(IllegalArgumentException.class, () -> appointmentExportService.validate(date,
+                date.plusDays(AppointmentExportService.MAX_WINDOW_DAYS), "csv"));
+        assertThrows(IllegalArgumentException.class, () -> appointmentExportService.validate(date, date.minusDays(1), "csv"));
+        assertThrows(IllegalArgumentException.class, () -> appointmentExportService.validate(date, date, "xml"));
+    }
+
+    private LocalTime slot(int n) {
+        return LocalTime.of(9, 0).plusMinutes(30L * n);
+    }
+}
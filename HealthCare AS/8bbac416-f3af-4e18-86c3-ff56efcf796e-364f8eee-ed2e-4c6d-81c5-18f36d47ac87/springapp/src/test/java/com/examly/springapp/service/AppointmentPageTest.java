@@ -0,0 +1,111 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.AppointmentCursor;
+import com.examly.springapp.dto.AppointmentDto;
+import com.examly.springapp.dto.AppointmentPageQuery;
+import com.examly.springapp.dto.CursorPage;
+import com.examly.springapp.model.*;
+import com.examly.springapp.repository.*;
+import com.examly.springapp.support.ClinicFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Keyset pages walk every matching appointment exactly once, in both directions and across days.
+ */
+@SpringBootTest
+public class AppointmentPageTest {
+
+    @Autowired
+    private ClinicFixture clinicFixture;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    private Patient patient;
+    private Doctor doctor;
+    private LocalDate date;
+
+    @BeforeEach
+    void setup() {
+        ClinicFixture.Clinic clinic = clinicFixture.reset();
+        patient = clinic.patient();
+        doctor = clinic.doctor();
+        date = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    void testKeysetPagesWalkEveryAppointmentOnce() {
+        List<Long> booked = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            booked.add(appointmentService.bookAppointment(patient.getId(), doctor.getId(), date, LocalTime.of(9, 0).plusMinutes(30L * i), "Paging").getId());
+        }
+
+        assertEquals(booked, walk(doctor.getId(), null, null, "asc", 2));
+
+        CursorPage<AppointmentDto> latest = appointmentService.findPage(null, patient.getId(),
+                new AppointmentPageQuery(null, 1, null, null, null, "desc"));
+        assertEquals(booked.get(4), latest.items().get(0).id());
+    }
+
+    @Test
+    void testPagesCrossDaysInBothDirections() {
+        List<Long> booked = new ArrayList<>();
+        // Later times on the first day and earlier ones on the next, so time alone would misorder them
+        booked.add(appointmentService.bookAppointment(patient.getId(), doctor.getId(), date, LocalTime.of(15, 0), "Paging").getId());
+        booked.add(appointmentService.bookAppointment(patient.getId(), doctor.getId(), date, LocalTime.of(16, 0), "Paging").getId());
+        booked.add(appointmentService.bookAppointment(patient.getId(), doctor.getId(), date.plusDays(1), LocalTime.of(9, 0), "Paging").getId());
+        booked.add(appointmentService.bookAppointment(patient.getId(), doctor.getId(), date.plusDays(1), LocalTime.of(10, 0), "Paging").getId());
+
+        assertEquals(booked, walk(null, null, null, "asc", 1));
+        List<Long> reversed = new ArrayList<>(booked);
+        Collections.reverse(reversed);
+        assertEquals(reversed, walk(null, patient.getId(), null, "desc", 3));
+    }
+
+    @Test
+    void testStatusFilterAndUnscheduledRows() {
+        Appointment confirmed = appointmentService.bookAppointment(patient.getId(), doctor.getId(), date, LocalTime.of(9, 0), "Paging");
+        appointmentService.bookAppointment(patient.getId(), doctor.getId(), date, LocalTime.of(9, 30), "Paging");
+        appointmentService.updateStatus(confirmed.getId(), AppointmentStatus.CONFIRMED);
+        // A legacy row without a time has no position in the ordering
+        appointmentRepository.save(Appointment.builder().patient(patient).doctor(doctor).appointmentDate(date)
+                .reason("Legacy").status(AppointmentStatus.CANCELLED).createdAt(LocalDateTime.now()).build());
+
+        assertEquals(List.of(confirmed.getId()), walk(doctor.getId(), null, AppointmentStatus.CONFIRMED, "asc", 1));
+        assertEquals(2, walk(doctor.getId(), null, null, "asc", 1).size());
+    }
+
+    @Test
+    void testMalformedCursorIsRejected() {
+        String noTime = Base64.getUrlEncoder().withoutPadding().encodeToString((date + "|null|1").getBytes());
+        assertThrows(IllegalArgumentException.class, () -> AppointmentCursor.decode(noTime));
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.findPage(null, null,
+                new AppointmentPageQuery("not-a-cursor", 2, null, null, null, "asc")));
+    }
+
+    private List<Long> walk(Long doctorId, Long patientId, AppointmentStatus status, String sort, int size) {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<AppointmentDto> page = appointmentService.findPage(doctorId, patientId,
+                    new AppointmentPageQuery(cursor, size, status, null, null, sort));
+            page.items().forEach(a -> seen.add(a.id()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+}
@@ -0,0 +1,145 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.AppointmentPageQuery;
+import com.examly.springapp.dto.AppointmentStats;
+import com.examly.springapp.dto.DayCount;
+import com.examly.springapp.dto.SpecializationCount;
+import com.examly.springapp.dto.StatusCount;
+import com.examly.springapp.model.*;
+import com.examly.springapp.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pins the number of SQL statements behind each appointment list endpoint. The data set has several
+ * distinct patients and doctors, so an N+1 regression shows up as extra statements.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class AppointmentStatementCountTest {
+    private static final int DOCTORS = 3;
+    private static final int PATIENTS = 4;
+
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private AdminStatsService adminStatsService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private final List<Doctor> doctors = new ArrayList<>();
+    private final List<Patient> patients = new ArrayList<>();
+    private LocalDate date;
+
+    @BeforeEach
+    void setup() {
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+        doctors.clear();
+        patients.clear();
+        date = LocalDate.now().plusDays(1);
+        for (int d = 0; d < DOCTORS; d++) {
+            doctors.add(doctorRepository.save(Doctor.builder().name("Dr. Count " + d).specialization("Cardiology")
+                    .email("count" + d + "@hospital.com").phoneNumber("987654321" + d).build()));
+        }
+        for (int p = 0; p < PATIENTS; p++) {
+            patients.add(patientRepository.save(Patient.builder().name("Patient " + p).email("patient" + p + "@example.com")
+                    .phoneNumber("123456789" + p).dateOfBirth(LocalDate.of(1990, 1, 1)).build()));
+        }
+        List<Appointment> appointments = new ArrayList<>();
+        for (int d = 0; d < DOCTORS; d++) {
+            for (int p = 0; p < PATIENTS; p++) {
+                appointments.add(Appointment.builder()
+                        .patient(patients.get(p))
+                        .doctor(doctors.get(d))
+                        .appointmentDate(date)
+                        .appointmentTime(LocalTime.of(9, 0).plusMinutes(30L * p))
+                        .reason("Statement count")
+                        .status(AppointmentStatus.SCHEDULED)
+                        .createdAt(LocalDateTime.now())
+                        .build());
+            }
+        }
+        appointmentRepository.saveAll(appointments);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testProjectionListsUseOneQuery() {
+        assertStatements(1, () -> assertEquals(DOCTORS * PATIENTS, appointmentService.listAll().size()));
+        // existence check + list
+        assertStatements(2, () -> appointmentService.listByDoctor(doctors.get(0).getId()));
+        assertStatements(2, () -> appointmentService.listByPatient(patients.get(0).getId()));
+    }
+
+    @Test
+    void testKeysetPagesUseOneQuery() {
+        AppointmentPageQuery query = new AppointmentPageQuery(null, 5, null, null, null, null);
+        assertStatements(1, () -> appointmentService.findPage(null, null, query));
+        assertStatements(2, () -> appointmentService.findPage(doctors.get(0).getId(), null, query));
+        assertStatements(2, () -> appointmentService.findPage(null, patients.get(0).getId(), query));
+    }
+
+    @Test
+    void testEntityListsFetchPatientAndDoctorInTheSameQuery() {
+        assertStatements(1, () -> touchParties(appointmentService.getAllAppointments()));
+        assertStatements(1, () -> touchParties(appointmentService.getAppointmentsByDoctor(doctors.get(0))));
+        // doctor/patient lookup + list
+        assertStatements(2, () -> touchParties(appointmentService.getByDoctorId(doctors.get(0).getId())));
+        assertStatements(2, () -> touchParties(appointmentService.getByPatientId(patients.get(0).getId())));
+        assertStatements(1, () -> touchParties(appointmentService.getAppointmentsByDateRange(date, date)));
+        assertStatements(1, () -> touchParties(appointmentRepository.findByStatus(AppointmentStatus.SCHEDULED)));
+    }
+
+    @Test
+    void testAdminStatsUseGroupByQueriesAndAreCached() {
+        AppointmentStats[] stats = new AppointmentStats[1];
+        // one query per breakdown
+        assertStatements(4, () -> stats[0] = adminStatsService.getStats(date, date.plusDays(1)));
+        assertEquals(DOCTORS * PATIENTS, stats[0].total());
+        assertEquals(List.of(new StatusCount(AppointmentStatus.SCHEDULED, (long) DOCTORS * PATIENTS)), stats[0].byStatus());
+        assertEquals(DOCTORS, stats[0].byDoctor().size());
+        assertTrue(stats[0].byDoctor().stream().allMatch(d -> d.count() == PATIENTS));
+        assertEquals(List.of(new DayCount(date, (long) DOCTORS * PATIENTS)), stats[0].byDay());
+        assertEquals(List.of(new SpecializationCount("Cardiology", (long) DOCTORS * PATIENTS)), stats[0].bySpecialization());
+
+        // a dashboard refresh within the TTL is answered from memory
+        assertStatements(0, () -> assertSame(stats[0], adminStatsService.getStats(date, date.plusDays(1))));
+        assertThrows(IllegalArgumentException.class, () -> adminStatsService.getStats(date, date.minusDays(1)));
+    }
+
+    // What serializing the list would do: read every patient and doctor
+    private static void touchParties(List<Appointment> appointments) {
+        assertFalse(appointments.isEmpty());
+        for (Appointment appointment : appointments) {
+            assertNotNull(appointment.getPatient().getName());
+            assertNotNull(appointment.getDoctor().getName());
+        }
+    }
+
+    private void assertStatements(long expected, Runnable call) {
+        statistics.clear();
+        call.run();
+        assertEquals(expected, statistics.getPrepareStatementCount(), "Unexpected number of SQL statements");
+    }
+}
@@ -0,0 +1,59 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.TransitionResult;
+import com.examly.springapp.model.*;
+import com.examly.springapp.repository.*;
+import com.examly.springapp.support.ClinicFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A status transition is one conditional UPDATE, and a refused one reports why.
+ */
+@SpringBootTest
+public class AppointmentTransitionTest {
+
+    @Autowired
+    private ClinicFixture clinicFixture;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    private Patient patient;
+    private Doctor doctor;
+    private LocalDate date;
+
+    @BeforeEach
+    void setup() {
+        ClinicFixture.Clinic clinic = clinicFixture.reset();
+        patient = clinic.patient();
+        doctor = clinic.doctor();
+        date = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    void testConditionalTransitionsReportWhyTheyWereRefused() {
+        Appointment appointment = appointmentService.bookAppointment(patient.getId(), doctor.getId(), date, LocalTime.of(16, 0), "Check-up");
+
+        assertEquals(TransitionResult.Outcome.FORBIDDEN, appointmentService.transition(
+                appointment.getId(), "someone@example.com", false, AppointmentTransition.CONFIRM).outcome());
+        assertEquals(TransitionResult.Outcome.INVALID_STATE, appointmentService.transition(
+                appointment.getId(), doctor.getEmail(), false, AppointmentTransition.COMPLETE).outcome());
+        assertEquals(TransitionResult.Outcome.APPLIED, appointmentService.transition(
+                appointment.getId(), patient.getEmail(), false, AppointmentTransition.CANCEL).outcome());
+        assertEquals(TransitionResult.Outcome.NOT_FOUND, appointmentService.transition(
+                -1L, doctor.getEmail(), true, AppointmentTransition.CANCEL).outcome());
+
+        Appointment cancelled = appointmentRepository.findById(appointment.getId()).orElseThrow();
+        assertEquals(AppointmentStatus.CANCELLED, cancelled.getStatus());
+        assertNull(cancelled.getActiveSlot());
+    }
+}
@@ -0,0 +1,93 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.BookingRequest;
+import com.examly.springapp.dto.BookingResult;
+import com.examly.springapp.model.*;
+import com.examly.springapp.repository.*;
+import com.examly.springapp.support.ClinicFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Every item of a batch gets its own outcome, including when the unique slot index refuses the flush.
+ */
+@SpringBootTest
+public class BatchBookingTest {
+
+    @Autowired
+    private ClinicFixture clinicFixture;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private SlotOccupancyIndex slotOccupancyIndex;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Patient patient;
+    private Doctor doctor;
+    private LocalDate date;
+
+    @BeforeEach
+    void setup() {
+        ClinicFixture.Clinic clinic = clinicFixture.reset();
+        patient = clinic.patient();
+        doctor = clinic.doctor();
+        date = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    void testEachItemGetsItsOwnOutcome() {
+        appointmentService.bookAppointment(patient.getId(), doctor.getId(), date, LocalTime.of(9, 0), "Existing booking");
+
+        List<BookingResult> results = appointmentService.bookAppointments(List.of(
+                request(LocalTime.of(9, 0)),
+                request(LocalTime.of(9, 30)),
+                request(LocalTime.of(9, 30)),
+                new BookingRequest(patient.getId(), -1L, date, LocalTime.of(10, 0), "Re-booking"),
+                request(LocalTime.of(10, 30))));
+
+        assertEquals(BookingResult.Outcome.CONFLICT, results.get(0).outcome());
+        assertEquals(BookingResult.Outcome.BOOKED, results.get(1).outcome());
+        assertEquals(BookingResult.Outcome.CONFLICT, results.get(2).outcome());
+        assertEquals(BookingResult.Outcome.INVALID, results.get(3).outcome());
+        assertEquals(BookingResult.Outcome.BOOKED, results.get(4).outcome());
+        assertEquals(3, appointmentRepository.count());
+    }
+
+    @Test
+    void testSlotTakenBehindTheRangeQueryOnlyFailsThatItem() {
+        // A row the range query does not see but the unique index does, as a booking committed by
+        // another instance between the query and the flush would be
+        Appointment hidden = appointmentService.bookAppointment(patient.getId(), doctor.getId(), date, LocalTime.of(11, 0), "Elsewhere");
+        jdbcTemplate.update("UPDATE appointment SET status = 'CANCELLED' WHERE id = ?", hidden.getId());
+        slotOccupancyIndex.rebuild();
+
+        List<BookingResult> results = appointmentService.bookAppointments(List.of(
+                request(LocalTime.of(10, 30)),
+                request(LocalTime.of(11, 0)),
+                request(LocalTime.of(11, 30))));
+
+        assertEquals(BookingResult.Outcome.BOOKED, results.get(0).outcome());
+        assertEquals(BookingResult.Outcome.CONFLICT, results.get(1).outcome());
+        assertEquals(1, results.get(1).index());
+        assertEquals(BookingResult.Outcome.BOOKED, results.get(2).outcome());
+        assertEquals(3, appointmentRepository.count());
+        // Rolled-back attempts gave their occupancy claims back
+        assertTrue(slotOccupancyIndex.checkConsistency().consistent());
+    }
+
+    private BookingRequest request(LocalTime time) {
+        return new BookingRequest(patient.getId(), doctor.getId(), date, time, "Re-booking");
+    }
+}
@@ -0,0 +1,131 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.TransitionResult;
+import com.examly.springapp.model.*;
+import com.examly.springapp.repository.*;
+import com.examly.springapp.support.ClinicFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulk transitions decide each appointment like a single one, and only release the slots their own UPDATE freed.
+ */
+@SpringBootTest
+public class BulkTransitionTest {
+
+    @Autowired
+    private ClinicFixture clinicFixture;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ApplicationEventMulticaster eventMulticaster;
+
+    private Patient patient;
+    private Doctor doctor;
+    private LocalDate date;
+
+    @BeforeEach
+    void setup() {
+        ClinicFixture.Clinic clinic = clinicFixture.reset();
+        patient = clinic.patient();
+        doctor = clinic.doctor();
+        date = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    void testBulkTransitionsForDoctorsDay() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(appointmentService.bookAppointment(patient.getId(), doctor.getId(), date, slot(i), "Clinic session").getId());
+        }
+
+        List<TransitionResult> confirmed = appointmentService.bulkTransition(
+                AppointmentTransition.CONFIRM, null, doctor.getId(), date, doctor.getEmail(), false);
+        assertEquals(3, confirmed.size());
+        assertTrue(confirmed.stream().allMatch(r -> r.outcome() == TransitionResult.Outcome.APPLIED));
+
+        List<Long> withMissing = new ArrayList<>(ids);
+        withMissing.add(-1L);
+        List<TransitionResult> completed = appointmentService.bulkTransition(
+                AppointmentTransition.COMPLETE, withMissing, null, null, doctor.getEmail(), false);
+        assertEquals(TransitionResult.Outcome.NOT_FOUND, completed.get(3).outcome());
+        assertTrue(appointmentRepository.findAllById(ids).stream().allMatch(a -> a.getStatus() == AppointmentStatus.COMPLETED));
+    }
+
+    @Test
+    void testCancelRacingTheBulkCancelReleasesItsSlotOnce() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(appointmentService.bookAppointment(patient.getId(), doctor.getId(), date, slot(i), "Clinic session").getId());
+        }
+        Long raced = ids.get(1);
+
+        List<SlotReleasedEvent> released = new CopyOnWriteArrayList<>();
+        ApplicationListener<PayloadApplicationEvent<?>> recorder = new ApplicationListener<>() {
+            @Override
+            public void onApplicationEvent(PayloadApplicationEvent<?> event) {
+                if (event.getPayload() instanceof SlotReleasedEvent slotReleased) {
+                    released.add(slotReleased);
+                }
+            }
+        };
+        eventMulticaster.addApplicationListener(recorder);
+        try {
+            // The patient cancels one appointment and keeps the row locked until the bulk UPDATE is waiting on it
+            CountDownLatch cancelled = new CountDownLatch(1);
+            CompletableFuture<TransitionResult> single = CompletableFuture.supplyAsync(() ->
+                    new TransactionTemplate(transactionManager).execute(status -> {
+                        TransitionResult result = appointmentService.transition(raced, patient.getEmail(), false, AppointmentTransition.CANCEL);
+                        cancelled.countDown();
+                        try {
+                            Thread.sleep(500);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return result;
+                    }));
+            assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+
+            List<TransitionResult> bulk = appointmentService.bulkTransition(
+                    AppointmentTransition.CANCEL, ids, null, null, doctor.getEmail(), false);
+
+            assertEquals(TransitionResult.Outcome.APPLIED, single.get(5, TimeUnit.SECONDS).outcome());
+            assertEquals(TransitionResult.Outcome.APPLIED, bulk.get(0).outcome());
+            assertEquals(TransitionResult.Outcome.INVALID_STATE, bulk.get(1).outcome());
+            assertEquals(TransitionResult.Outcome.APPLIED, bulk.get(2).outcome());
+        } finally {
+            eventMulticaster.removeApplicationListener(recorder);
+        }
+
+        // One release per slot, however the two requests interleaved
+        assertEquals(3, released.size());
+        assertEquals(3, released.stream().map(SlotReleasedEvent::time).distinct().count());
+        assertTrue(appointmentRepository.findAllById(ids).stream().allMatch(a -> a.getStatus() == AppointmentStatus.CANCELLED));
+    }
+
+    private LocalTime slot(int n) {
+        return LocalTime.of(9, 0).plusMinutes(30L * n);
+    }
+}
@@ -0,0 +1,67 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.Doctor;
+import com.examly.springapp.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Doctor writes that bypass DoctorService, including the bulk password rehash, still invalidate the
+ * doctor cache.
+ */
+@SpringBootTest
+public class DoctorCacheInvalidatorTest {
+
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private DoctorAvailabilityRepository availabilityRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private MyUserDetailsService userDetailsService;
+
+    private Doctor doctor;
+
+    @BeforeEach
+    void setup() {
+        appointmentRepository.deleteAll();
+        availabilityRepository.deleteAll();
+        doctorRepository.deleteAll();
+        doctor = doctorRepository.save(Doctor.builder().name("Dr. Stone").specialization("Cardiology").email("stone@hospital.com").phoneNumber("9876543210").password("old-hash").build());
+    }
+
+    @Test
+    void testRepositoryWritesInvalidate() {
+        assertEquals("Cardiology", doctorService.getDoctorById(doctor.getId()).getSpecialization());
+        assertEquals(doctor.getId(), doctorService.getDoctorByEmail("stone@hospital.com").getId());
+
+        Doctor changed = doctorRepository.findById(doctor.getId()).orElseThrow();
+        changed.setSpecialization("Neurology");
+        doctorRepository.save(changed);
+        assertEquals("Neurology", doctorService.getDoctorById(doctor.getId()).getSpecialization());
+
+        doctorRepository.deleteAll();
+        assertNull(doctorService.getDoctorById(doctor.getId()));
+        assertNull(doctorService.getDoctorByEmail("stone@hospital.com"));
+        assertTrue(doctorService.getAllDoctors().isEmpty());
+    }
+
+    @Test
+    void testPasswordRehashInvalidates() {
+        assertEquals("old-hash", doctorService.getDoctorById(doctor.getId()).getPassword());
+
+        UserDetails user = userDetailsService.loadUserByUsername("stone@hospital.com");
+        userDetailsService.updatePassword(user, "new-hash");
+
+        assertEquals("new-hash", doctorService.getDoctorById(doctor.getId()).getPassword());
+        assertEquals("new-hash", doctorService.getDoctorByEmail("stone@hospital.com").getPassword());
+    }
+}
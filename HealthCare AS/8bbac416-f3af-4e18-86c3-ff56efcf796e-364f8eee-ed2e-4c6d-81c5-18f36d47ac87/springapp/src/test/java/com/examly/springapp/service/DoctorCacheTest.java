@@ -0,0 +1,88 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.Doctor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LRU bound, precise invalidation and statistics of the doctor lookup cache.
+ */
+public class DoctorCacheTest {
+
+    @Test
+    void testHitsMissesAndLruEviction() {
+        DoctorCache cache = new DoctorCache(2);
+        AtomicInteger loads = new AtomicInteger();
+        for (long id : new long[] {1, 2, 1, 3, 1, 2}) {
+            cache.getById(id, () -> {
+                loads.incrementAndGet();
+                return doctor(id, "doc" + id + "@hospital.com");
+            });
+        }
+        // 1, 2 miss; 1 hits; 3 evicts 2; 1 hits; 2 misses and evicts 3
+        assertEquals(4, loads.get());
+        DoctorCache.Stats stats = cache.getStats();
+        assertEquals(2, stats.hits());
+        assertEquals(4, stats.misses());
+        assertEquals(2, stats.evictions());
+        assertEquals(2, stats.size());
+        assertEquals(2.0 / 6, stats.hitRate(), 1e-9);
+
+        // the email index follows evictions
+        assertEquals(1L, cache.getByEmail("doc1@hospital.com", () -> fail("should be cached")).getId());
+        assertNull(cache.getByEmail("doc3@hospital.com", () -> null));
+    }
+
+    @Test
+    void testWritesInvalidateIdEmailAndList() {
+        DoctorCache cache = new DoctorCache(10);
+        cache.getById(1L, () -> doctor(1L, "old@hospital.com"));
+        cache.getAll(() -> List.of(doctor(1L, "old@hospital.com")));
+
+        cache.onDoctorChanged(DoctorChangedEvent.saved(doctor(1L, "new@hospital.com")));
+        assertEquals("new@hospital.com", cache.getById(1L, () -> doctor(1L, "new@hospital.com")).getEmail());
+        assertNull(cache.getByEmail("old@hospital.com", () -> null));
+        assertEquals("new@hospital.com", cache.getAll(() -> List.of(doctor(1L, "new@hospital.com"))).get(0).getEmail());
+
+        cache.onDoctorChanged(DoctorChangedEvent.deleted(1L));
+        assertNull(cache.getById(1L, () -> null));
+        assertNull(cache.getByEmail("new@hospital.com", () -> null));
+    }
+
+    @Test
+    void testLoadRacingAWriteIsNotStored() {
+        DoctorCache cache = new DoctorCache(10);
+        // The write commits while the read is still loading the old row
+        Doctor stale = cache.getById(1L, () -> {
+            cache.onDoctorChanged(DoctorChangedEvent.saved(doctor(1L, "new@hospital.com")));
+            return doctor(1L, "old@hospital.com");
+        });
+        assertEquals("old@hospital.com", stale.getEmail());
+        assertEquals("new@hospital.com", cache.getById(1L, () -> doctor(1L, "new@hospital.com")).getEmail());
+    }
+
+    @Test
+    void testCallersCannotChangeCachedDoctors() {
+        DoctorCache cache = new DoctorCache(10);
+        Doctor loaded = doctor(1L, "doc@hospital.com");
+        cache.getById(1L, () -> loaded);
+        cache.getAll(() -> List.of(loaded));
+
+        loaded.setName("Dr. Loader Changed");
+        cache.getById(1L, () -> fail("should be cached")).setName("Dr. Caller Changed");
+        cache.getAll(() -> fail("should be cached")).get(0).setName("Dr. Caller Changed");
+
+        assertEquals("Dr. Cached 1", cache.getById(1L, () -> fail("should be cached")).getName());
+        assertEquals("Dr. Cached 1", cache.getByEmail("doc@hospital.com", () -> fail("should be cached")).getName());
+        assertEquals("Dr. Cached 1", cache.getAll(() -> fail("should be cached")).get(0).getName());
+    }
+
+    private static Doctor doctor(long id, String email) {
+        return Doctor.builder().id(id).name("Dr. Cached " + id).specialization("Cardiology").email(email)
+                .phoneNumber("9876543210").build();
+    }
+}
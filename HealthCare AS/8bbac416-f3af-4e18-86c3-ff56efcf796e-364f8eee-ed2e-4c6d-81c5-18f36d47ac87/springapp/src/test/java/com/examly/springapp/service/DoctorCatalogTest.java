@@ -0,0 +1,91 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.Doctor;
+import com.examly.springapp.model.Doctor.ProfileStatus;
+import com.examly.springapp.repository.*;
+import com.examly.springapp.service.DoctorCatalog.CatalogEntry;
+import com.examly.springapp.service.DoctorService.UpdateDoctorProfileRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The catalog counts follow doctor writes and are served without SQL.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class DoctorCatalogTest {
+
+    @Autowired
+    private DoctorCatalog doctorCatalog;
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private DoctorAvailabilityRepository availabilityRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Doctor first;
+    private Doctor second;
+
+    @BeforeEach
+    void setup() {
+        appointmentRepository.deleteAll();
+        availabilityRepository.deleteAll();
+        doctorRepository.deleteAll();
+        doctorCatalog.rebuild();
+        first = doctorService.createDoctor(doctor("Dr. Catalog One", "Cardiology", "Lakeside", "catalog1@hospital.com"));
+        second = doctorService.createDoctor(doctor("Dr. Catalog Two", "Cardiology", "Hilltop", "catalog2@hospital.com"));
+        doctorService.createDoctor(doctor("Dr. Catalog Three", "Dermatology", "Lakeside", "catalog3@hospital.com"));
+    }
+
+    @Test
+    void testCountsFollowDoctorWrites() {
+        assertEquals(List.of(new CatalogEntry("Cardiology", 2), new CatalogEntry("Dermatology", 1)),
+                doctorCatalog.getSnapshot().specializations());
+        assertEquals(List.of(new CatalogEntry("Hilltop", 1), new CatalogEntry("Lakeside", 2)),
+                doctorCatalog.getSnapshot().clinics());
+
+        UpdateDoctorProfileRequest update = new UpdateDoctorProfileRequest();
+        update.setSpecialization("Dermatology");
+        doctorService.updateDoctorProfile(first.getId(), update);
+        assertEquals(List.of(new CatalogEntry("Cardiology", 1), new CatalogEntry("Dermatology", 2)),
+                doctorCatalog.getSnapshot().specializations());
+
+        update = new UpdateDoctorProfileRequest();
+        update.setStatus(ProfileStatus.INACTIVE);
+        doctorService.updateDoctorProfile(second.getId(), update);
+        assertEquals(List.of("Dermatology"), doctorService.getAvailableSpecializations());
+        assertEquals(List.of(new CatalogEntry("Lakeside", 2)), doctorCatalog.getSnapshot().clinics());
+
+        doctorService.deleteDoctor(first.getId());
+        assertEquals(List.of(new CatalogEntry("Dermatology", 1)), doctorCatalog.getSnapshot().specializations());
+    }
+
+    @Test
+    void testReadsDoNotTouchTheDatabase() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        for (int i = 0; i < 100; i++) {
+            doctorCatalog.getSnapshot();
+            doctorService.getAvailableSpecializations();
+        }
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    private static Doctor doctor(String name, String specialization, String clinic, String email) {
+        return Doctor.builder().name(name).specialization(specialization).clinicName(clinic)
+                .email(email).phoneNumber("9876512345").build();
+    }
+}
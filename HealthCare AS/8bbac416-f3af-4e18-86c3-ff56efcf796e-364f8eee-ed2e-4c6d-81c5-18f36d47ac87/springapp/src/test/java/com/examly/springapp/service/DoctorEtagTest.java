@@ -0,0 +1,122 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.Doctor;
+import com.examly.springapp.repository.*;
+import com.examly.springapp.service.DoctorService.AvailabilityRequest;
+import com.examly.springapp.service.DoctorService.UpdateMyProfileRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The doctor validators change with every write and are computed without loading entities.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class DoctorEtagTest {
+
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private DoctorAvailabilityRepository availabilityRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Doctor doctor;
+
+    @BeforeEach
+    void setup() {
+        appointmentRepository.deleteAll();
+        availabilityRepository.deleteAll();
+        doctorRepository.deleteAll();
+        doctor = doctorService.createDoctor(Doctor.builder().name("Dr. Etag").specialization("Cardiology")
+                .email("etag@hospital.com").phoneNumber("9876543210").build());
+        setAvailability("09:00", "09:30");
+    }
+
+    @Test
+    void testValidatorsLoadNoEntities() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertNotNull(doctorService.getDoctorsEtag());
+        assertNotNull(doctorService.getDoctorEtag(doctor.getId()));
+        assertNotNull(doctorService.getAvailabilityEtag(doctor.getId()));
+        assertNull(doctorService.getDoctorEtag(doctor.getId() + 1000));
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testValidatorsChangeWithEveryWrite() {
+        String list = doctorService.getDoctorsEtag();
+        String single = doctorService.getDoctorEtag(doctor.getId());
+        String availability = doctorService.getAvailabilityEtag(doctor.getId());
+        assertEquals(list, doctorService.getDoctorsEtag());
+        assertEquals(single, doctorService.getDoctorEtag(doctor.getId()));
+        assertEquals(availability, doctorService.getAvailabilityEtag(doctor.getId()));
+
+        UpdateMyProfileRequest update = new UpdateMyProfileRequest();
+        update.setBio("Now with a bio");
+        doctorService.updateMyProfile("etag@hospital.com", update);
+        assertNotEquals(list, doctorService.getDoctorsEtag());
+        assertNotEquals(single, doctorService.getDoctorEtag(doctor.getId()));
+        assertEquals(availability, doctorService.getAvailabilityEtag(doctor.getId()));
+
+        // The replacement has the same number of rows and slots
+        setAvailability("10:00", "10:30");
+        assertNotEquals(availability, doctorService.getAvailabilityEtag(doctor.getId()));
+
+        // A full replace without a version in the body still goes through
+        Doctor replacement = Doctor.builder().name("Dr. Etag Replaced").specialization("Cardiology")
+                .email("etag@hospital.com").phoneNumber("9876543210").build();
+        assertNotNull(doctorService.updateDoctor(doctor.getId(), replacement));
+    }
+
+    @Test
+    void testEtagDescribesTheDoctorReturned() {
+        Doctor cached = doctorService.getDoctorById(doctor.getId());
+        assertEquals(doctorService.getDoctorEtag(doctor.getId()), doctorService.getDoctorEtag(cached));
+
+        // A write the cache has not seen yet
+        jdbcTemplate.update("UPDATE doctor SET bio = 'Changed elsewhere', version = version + 1 WHERE id = ?", doctor.getId());
+        String current = doctorService.getDoctorEtag(doctor.getId());
+        assertNotEquals(current, doctorService.getDoctorEtag(doctorService.getDoctorById(doctor.getId())));
+
+        Doctor fresh = doctorService.getDoctorByIdUncached(doctor.getId());
+        assertEquals(current, doctorService.getDoctorEtag(fresh));
+        assertEquals("Changed elsewhere", fresh.getBio());
+    }
+
+    @Test
+    void testListEtagDescribesTheListReturned() {
+        List<Doctor> cached = doctorService.getAllDoctors();
+        assertEquals(doctorService.getDoctorsEtag(), doctorService.getDoctorsEtag(cached));
+
+        jdbcTemplate.update("UPDATE doctor SET bio = 'Changed elsewhere', version = version + 1 WHERE id = ?", doctor.getId());
+        String current = doctorService.getDoctorsEtag();
+        assertNotEquals(current, doctorService.getDoctorsEtag(doctorService.getAllDoctors()));
+
+        List<Doctor> fresh = doctorService.getAllDoctorsUncached();
+        assertEquals(current, doctorService.getDoctorsEtag(fresh));
+        assertEquals("Changed elsewhere", fresh.get(0).getBio());
+    }
+
+    private void setAvailability(String... slots) {
+        doctorService.setDoctorAvailability(doctor.getId(), new AvailabilityRequest(doctor.getId(), List.of(
+                new AvailabilityRequest.AvailabilitySlot("MONDAY", "Monday", List.of(slots), true))));
+    }
+}
@@ -0,0 +1,117 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.DoctorSummary;
+import com.examly.springapp.model.Doctor;
+import com.examly.springapp.model.Doctor.ProfileStatus;
+import com.examly.springapp.repository.*;
+import com.examly.springapp.service.DoctorService.UpdateDoctorProfileRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Autocomplete is answered from memory, tolerates typos and follows doctor writes.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class DoctorSearchIndexTest {
+    private static final int FILLER_DOCTORS = 300;
+
+    @Autowired
+    private DoctorSearchIndex doctorSearchIndex;
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private DoctorAvailabilityRepository availabilityRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Doctor cardiologist;
+
+    @BeforeEach
+    void setup() {
+        appointmentRepository.deleteAll();
+        availabilityRepository.deleteAll();
+        doctorRepository.deleteAll();
+        for (int i = 0; i < FILLER_DOCTORS; i++) {
+            doctorRepository.save(Doctor.builder().name(String.format("Dr. Filler %03d", i)).specialization("General Medicine")
+                    .clinicName("Community Clinic").email("filler" + i + "@hospital.com")
+                    .phoneNumber(String.format("97%08d", i)).build());
+        }
+        doctorSearchIndex.rebuild();
+        cardiologist = doctorService.createDoctor(Doctor.builder().name("Dr. Priya Raghavan").specialization("Cardiology")
+                .clinicName("Lakeside Heart Centre").qualifications("MBBS, MD (Cardiology)")
+                .bio("Interventional cardiologist focusing on angioplasty").email("priya@hospital.com")
+                .phoneNumber("9876500001").build());
+    }
+
+    @Test
+    void testPrefixAndTypoTolerantMatches() {
+        assertEquals(List.of(cardiologist.getId()), ids(doctorSearchIndex.suggest("cardio", 10)));
+        assertEquals(List.of(cardiologist.getId()), ids(doctorSearchIndex.suggest("Raghav", 10)));
+        // one substitution, one transposition, two edits in a long word
+        assertEquals(List.of(cardiologist.getId()), ids(doctorSearchIndex.suggest("cardoi", 10)));
+        assertEquals(List.of(cardiologist.getId()), ids(doctorSearchIndex.suggest("lakseide", 10)));
+        assertEquals(List.of(cardiologist.getId()), ids(doctorSearchIndex.suggest("angioplsaty", 10)));
+        // every word has to match
+        assertEquals(List.of(cardiologist.getId()), ids(doctorSearchIndex.suggest("priya heart", 10)));
+        assertTrue(doctorSearchIndex.suggest("priya community", 10).isEmpty());
+        assertEquals(10, doctorSearchIndex.suggest("filler", 10).size());
+    }
+
+    @Test
+    void testIndexFollowsDoctorWrites() {
+        UpdateDoctorProfileRequest update = new UpdateDoctorProfileRequest();
+        update.setSpecialization("Dermatology");
+        doctorService.updateDoctorProfile(cardiologist.getId(), update);
+        assertTrue(doctorSearchIndex.suggest("cardiology", 10).stream()
+                .noneMatch(d -> d.specialization().equals("Cardiology")));
+        assertEquals(List.of(cardiologist.getId()), ids(doctorSearchIndex.suggest("derma", 10)));
+
+        update = new UpdateDoctorProfileRequest();
+        update.setStatus(ProfileStatus.SUSPENDED);
+        doctorService.updateDoctorProfile(cardiologist.getId(), update);
+        assertTrue(doctorSearchIndex.suggest("derma", 10).isEmpty());
+
+        update.setStatus(ProfileStatus.ACTIVE);
+        doctorService.updateDoctorProfile(cardiologist.getId(), update);
+        assertEquals(List.of(cardiologist.getId()), ids(doctorSearchIndex.suggest("derma", 10)));
+
+        assertEquals("Doctor deleted successfully", doctorService.deleteDoctor(cardiologist.getId()));
+        assertTrue(doctorSearchIndex.suggest("derma", 10).isEmpty());
+    }
+
+    @Test
+    void testSuggestionsDoNotTouchTheDatabase() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String[] queries = {"card", "cardoi", "lakeside hea", "fill", "filer 01", "genral med"};
+        for (String query : queries) {
+            doctorSearchIndex.suggest(query, 10);
+        }
+
+        statistics.clear();
+        int rounds = 2000;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            doctorSearchIndex.suggest(queries[i % queries.length], 10);
+        }
+        long micros = (System.nanoTime() - start) / 1000 / rounds;
+        System.out.println("Doctor suggest: " + micros + " µs per query over " + (FILLER_DOCTORS + 1) + " doctors");
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    private static List<Long> ids(List<DoctorSummary> suggestions) {
+        return suggestions.stream().map(DoctorSummary::id).toList();
+    }
+}
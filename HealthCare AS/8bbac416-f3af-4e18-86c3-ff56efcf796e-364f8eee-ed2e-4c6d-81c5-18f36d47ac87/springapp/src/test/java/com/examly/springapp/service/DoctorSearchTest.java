@@ -0,0 +1,120 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.OffsetPage;
+import com.examly.springapp.model.Doctor;
+import com.examly.springapp.model.Doctor.ProfileStatus;
+import com.examly.springapp.repository.*;
+import com.examly.springapp.service.DoctorService.DoctorFilterRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Doctor profile search runs its filters, ordering and paging in SQL: only matching rows are
+ * loaded, whatever the size of the doctor table.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class DoctorSearchTest {
+    private static final int DOCTORS = 500;
+
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private DoctorAvailabilityRepository availabilityRepository;
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        appointmentRepository.deleteAll();
+        waitlistRepository.deleteAll();
+        availabilityRepository.deleteAll();
+        doctorRepository.deleteAll();
+        List<Doctor> doctors = new ArrayList<>();
+        for (int i = 0; i < DOCTORS; i++) {
+            // every 50th doctor is a suspended neurologist at a clinic whose name contains an underscore
+            boolean rare = i % 50 == 0;
+            doctors.add(Doctor.builder()
+                    .name(String.format("Dr. Search %03d", i))
+                    .specialization(rare ? "Neurology" : "General Medicine")
+                    .clinicName(rare ? "North_Side Clinic" : "Northside Clinic")
+                    .email("search" + i + "@hospital.com")
+                    .phoneNumber(String.format("98%08d", i))
+                    .status(rare ? ProfileStatus.SUSPENDED : ProfileStatus.ACTIVE)
+                    .build());
+        }
+        doctorRepository.saveAll(doctors);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testFiltersOnlyLoadMatchingDoctors() {
+        DoctorFilterRequest filter = new DoctorFilterRequest();
+        filter.setSpecialization("neuro");
+        filter.setStatus(ProfileStatus.SUSPENDED);
+
+        statistics.clear();
+        List<Doctor> found = doctorService.getAllDoctorProfiles(filter);
+        assertEquals(DOCTORS / 50, found.size());
+        assertEquals(DOCTORS / 50, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(DOCTORS / 50, doctorService.getDoctorsBySpecialization("NEUROLOGY").size());
+    }
+
+    @Test
+    void testLikeWildcardsInInputAreLiteral() {
+        DoctorFilterRequest filter = new DoctorFilterRequest();
+        filter.setClinicName("h_s");
+        assertEquals(DOCTORS / 50, doctorService.getAllDoctorProfiles(filter).size());
+
+        filter.setClinicName("%");
+        assertTrue(doctorService.getAllDoctorProfiles(filter).isEmpty());
+    }
+
+    @Test
+    void testPagesAreSortedAndCounted() {
+        DoctorFilterRequest filter = new DoctorFilterRequest();
+        filter.setStatus(ProfileStatus.ACTIVE);
+        filter.setSort("name,desc");
+        filter.setPage(1);
+        filter.setSize(25);
+
+        statistics.clear();
+        OffsetPage<Doctor> page = doctorService.getDoctorProfilesPage(filter);
+        // page select + count
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(25, page.items().size());
+        assertEquals(25, statistics.getEntityLoadCount());
+        assertEquals(DOCTORS - DOCTORS / 50, page.totalItems());
+        assertEquals("Dr. Search 474", page.items().get(0).getName());
+        for (int i = 1; i < page.items().size(); i++) {
+            assertTrue(page.items().get(i - 1).getName().compareTo(page.items().get(i).getName()) > 0);
+        }
+    }
+
+    @Test
+    void testUnknownSortPropertyIsRejected() {
+        DoctorFilterRequest filter = new DoctorFilterRequest();
+        filter.setSort("password");
+        assertThrows(IllegalArgumentException.class, () -> doctorService.getAllDoctorProfiles(filter));
+        filter.setSort("name,sideways");
+        assertThrows(IllegalArgumentException.class, () -> doctorService.getAllDoctorProfiles(filter));
+    }
+}
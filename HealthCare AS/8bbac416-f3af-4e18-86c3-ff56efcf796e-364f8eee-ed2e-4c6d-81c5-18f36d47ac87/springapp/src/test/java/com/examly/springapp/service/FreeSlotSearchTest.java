@@ -0,0 +1,142 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.AvailableSlot;
+import com.examly.springapp.dto.DoctorFreeSlots;
+import com.examly.springapp.model.*;
+import com.examly.springapp.repository.*;
+import com.examly.springapp.support.ClinicFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The cross-doctor search ranks doctors by their earliest free slot within the time window. Chunks
+ * of two doctor ids make every search span several chunks, some without any availability.
+ */
+@SpringBootTest(properties = "availability.search.id-chunk-size=2")
+public class FreeSlotSearchTest {
+
+    @Autowired
+    private ClinicFixture clinicFixture;
+    @Autowired
+    private AvailabilityService availabilityService;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private DoctorAvailabilityRepository availabilityRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    private Patient patient;
+    private Doctor stone;
+    private Doctor early;
+    private Doctor skin;
+    private LocalDate tomorrow;
+    private LocalDate dayAfter;
+
+    @BeforeEach
+    void setup() {
+        ClinicFixture.Clinic clinic = clinicFixture.reset();
+        patient = clinic.patient();
+        stone = clinic.doctor();
+        tomorrow = LocalDate.now().plusDays(1);
+        dayAfter = tomorrow.plusDays(1);
+
+        early = doctor("Dr. Early", "Cardiology", "early@hospital.com", Doctor.ProfileStatus.ACTIVE);
+        skin = doctor("Dr. Skin", "Dermatology", "skin@hospital.com", Doctor.ProfileStatus.ACTIVE);
+        Doctor inactive = doctor("Dr. Away", "Cardiology", "away@hospital.com", Doctor.ProfileStatus.INACTIVE);
+        // No availability at all
+        doctor("Dr. Bare", "Cardiology", "bare@hospital.com", Doctor.ProfileStatus.ACTIVE);
+        doctor("Dr. Idle", "Cardiology", "idle@hospital.com", Doctor.ProfileStatus.ACTIVE);
+
+        availability(stone, tomorrow, "09:00", "09:30", "10:00");
+        availability(early, tomorrow, "08:00", "11:00");
+        availability(skin, dayAfter, "07:00");
+        availability(inactive, tomorrow, "06:00");
+    }
+
+    @AfterEach
+    void cleanup() {
+        // Other test classes delete doctors without their availability
+        availabilityRepository.deleteAll();
+    }
+
+    @Test
+    void testDoctorsRankedByEarliestFreeSlot() {
+        appointmentService.bookAppointment(patient.getId(), stone.getId(), tomorrow, LocalTime.of(9, 0), "Check-up");
+
+        List<DoctorFreeSlots> all = availabilityService.searchFreeSlots(null, null, tomorrow, dayAfter, null, null, 10, 2);
+        assertEquals(List.of(early.getId(), stone.getId(), skin.getId()), doctorIds(all));
+        assertEquals(List.of(slot(tomorrow, 9, 30), slot(tomorrow, 10, 0)), all.get(1).slots());
+
+        assertEquals(List.of(early.getId(), stone.getId()),
+                doctorIds(availabilityService.searchFreeSlots(null, null, tomorrow, dayAfter, null, null, 2, 1)));
+        assertEquals(List.of(skin.getId()),
+                doctorIds(availabilityService.searchFreeSlots("derm", null, tomorrow, dayAfter, null, null, 10, 5)));
+        assertTrue(availabilityService.searchFreeSlots("Neurology", null, tomorrow, dayAfter, null, null, 10, 5).isEmpty());
+    }
+
+    @Test
+    void testTimeWindowCutsAcrossSlots() {
+        // Start inclusive, end exclusive: 10:00 is outside [09:15, 10:00)
+        List<DoctorFreeSlots> morning = availabilityService.searchFreeSlots(null, null, tomorrow, dayAfter,
+                LocalTime.of(9, 15), LocalTime.of(10, 0), 10, 5);
+        assertEquals(List.of(stone.getId()), doctorIds(morning));
+        assertEquals(List.of(slot(tomorrow, 9, 30)), morning.get(0).slots());
+
+        List<DoctorFreeSlots> late = availabilityService.searchFreeSlots(null, null, tomorrow, dayAfter,
+                LocalTime.of(10, 0), null, 10, 5);
+        assertEquals(List.of(stone.getId(), early.getId()), doctorIds(late));
+        assertEquals(List.of(slot(tomorrow, 11, 0)), late.get(1).slots());
+
+        assertEquals(List.of(skin.getId()), doctorIds(availabilityService.searchFreeSlots(null, null, tomorrow, dayAfter,
+                null, LocalTime.of(8, 0), 10, 5)));
+    }
+
+    @Test
+    void testSearchArgumentsAreValidated() {
+        assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.searchFreeSlots(null, null, dayAfter, tomorrow, null, null, 10, 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.searchFreeSlots(null, null, tomorrow, tomorrow.plusDays(AvailabilityService.MAX_WINDOW_DAYS), null, null, 10, 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.searchFreeSlots(null, null, tomorrow, dayAfter, null, null, 0, 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.searchFreeSlots(null, null, tomorrow, dayAfter, null, null, AvailabilityService.MAX_RESULTS + 1, 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.searchFreeSlots(null, null, tomorrow, dayAfter, null, null, 10, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.searchFreeSlots(null, null, tomorrow, dayAfter, null, null, 10, AvailabilityService.MAX_RESULTS + 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.searchFreeSlots(null, null, tomorrow, dayAfter, LocalTime.of(10, 0), LocalTime.of(10, 0), 10, 5));
+    }
+
+    private Doctor doctor(String name, String specialization, String email, Doctor.ProfileStatus status) {
+        return doctorRepository.save(Doctor.builder().name(name).specialization(specialization)
+                .email(email).phoneNumber("9876543211").status(status).build());
+    }
+
+    private void availability(Doctor doctor, LocalDate date, String... slots) {
+        availabilityRepository.save(DoctorAvailability.builder()
+                .doctor(doctor)
+                .dayOfWeek(date.getDayOfWeek().name())
+                .timeSlots(List.of(slots))
+                .build());
+    }
+
+    private static List<Long> doctorIds(List<DoctorFreeSlots> results) {
+        return results.stream().map(r -> r.doctor().id()).toList();
+    }
+
+    private static AvailableSlot slot(LocalDate date, int hour, int minute) {
+        return new AvailableSlot(date, LocalTime.of(hour, minute));
+    }
+}
@@ -0,0 +1,103 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.AvailableSlot;
+import com.examly.springapp.model.*;
+import com.examly.springapp.repository.*;
+import com.examly.springapp.support.ClinicFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The next free slots of a doctor walk the window day by day in time order, leaving out booked,
+ * past and malformed slots.
+ */
+@SpringBootTest
+public class NextAvailableSlotTest {
+
+    @Autowired
+    private ClinicFixture clinicFixture;
+    @Autowired
+    private AvailabilityService availabilityService;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private DoctorAvailabilityRepository availabilityRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    private Patient patient;
+    private Doctor doctor;
+    private LocalDate today;
+    private LocalDate tomorrow;
+
+    @BeforeEach
+    void setup() {
+        ClinicFixture.Clinic clinic = clinicFixture.reset();
+        patient = clinic.patient();
+        doctor = clinic.doctor();
+        today = LocalDate.now();
+        tomorrow = today.plusDays(1);
+        // Midnight today has already passed
+        availabilityRepository.save(DoctorAvailability.builder()
+                .doctor(doctor)
+                .dayOfWeek(today.getDayOfWeek().name())
+                .timeSlots(List.of("00:00"))
+                .build());
+        availabilityRepository.save(DoctorAvailability.builder()
+                .doctor(doctor)
+                .dayOfWeek(tomorrow.getDayOfWeek().name().toLowerCase())
+                .timeSlots(List.of("10:00", "not-a-time", "09:00", "08:30"))
+                .build());
+    }
+
+    @AfterEach
+    void cleanup() {
+        // Other test classes delete doctors without their availability
+        availabilityRepository.deleteAll();
+    }
+
+    @Test
+    void testFreeSlotsInDayAndTimeOrder() {
+        appointmentService.bookAppointment(patient.getId(), doctor.getId(), tomorrow, LocalTime.of(9, 0), "Check-up");
+
+        assertEquals(List.of(slot(tomorrow, 8, 30), slot(tomorrow, 10, 0)),
+                availabilityService.findNextAvailable(doctor.getId(), null, 7, 10));
+        // The second week brings today's weekday back, now in the future
+        assertEquals(List.of(slot(tomorrow, 8, 30), slot(tomorrow, 10, 0), slot(today.plusDays(7), 0, 0), slot(tomorrow.plusDays(7), 8, 30)),
+                availabilityService.findNextAvailable(doctor.getId(), today, 14, 4));
+        assertEquals(List.of(slot(tomorrow, 8, 30)), availabilityService.findNextAvailable(doctor.getId(), null, 7, 1));
+        assertEquals(List.of(slot(today.plusDays(7), 0, 0)),
+                availabilityService.findNextAvailable(doctor.getId(), today.plusDays(3), 7, 1));
+    }
+
+    @Test
+    void testDoctorWithoutAvailabilityHasNoSlots() {
+        Doctor other = doctorRepository.save(Doctor.builder().name("Dr. Vale").specialization("Cardiology")
+                .email("vale@hospital.com").phoneNumber("9876543211").build());
+        assertTrue(availabilityService.findNextAvailable(other.getId(), null, 7, 10).isEmpty());
+    }
+
+    @Test
+    void testWindowAndLimitAreValidated() {
+        assertThrows(IllegalArgumentException.class, () -> availabilityService.findNextAvailable(doctor.getId(), today.minusDays(1), 7, 10));
+        assertThrows(IllegalArgumentException.class, () -> availabilityService.findNextAvailable(doctor.getId(), null, 0, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.findNextAvailable(doctor.getId(), null, AvailabilityService.MAX_WINDOW_DAYS + 1, 10));
+        assertThrows(IllegalArgumentException.class, () -> availabilityService.findNextAvailable(doctor.getId(), null, 7, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.findNextAvailable(doctor.getId(), null, 7, AvailabilityService.MAX_RESULTS + 1));
+    }
+
+    private static AvailableSlot slot(LocalDate date, int hour, int minute) {
+        return new AvailableSlot(date, LocalTime.of(hour, minute));
+    }
+}
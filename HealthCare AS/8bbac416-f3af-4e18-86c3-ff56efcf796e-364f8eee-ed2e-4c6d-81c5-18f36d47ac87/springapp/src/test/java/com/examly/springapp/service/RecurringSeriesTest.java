@@ -0,0 +1,79 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.BookingResult;
+import com.examly.springapp.dto.SeriesRequest;
+import com.examly.springapp.dto.SeriesResult;
+import com.examly.springapp.model.*;
+import com.examly.springapp.repository.*;
+import com.examly.springapp.support.ClinicFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recurring series book every occurrence or none, and never reach further ahead than the booking horizon.
+ */
+@SpringBootTest
+public class RecurringSeriesTest {
+
+    @Autowired
+    private ClinicFixture clinicFixture;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private SlotOccupancyIndex slotOccupancyIndex;
+
+    private Patient patient;
+    private Doctor doctor;
+    private LocalDate date;
+
+    @BeforeEach
+    void setup() {
+        ClinicFixture.Clinic clinic = clinicFixture.reset();
+        patient = clinic.patient();
+        doctor = clinic.doctor();
+        date = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    void testAllOrNothingSeriesBooksNothingOnConflict() {
+        LocalTime time = LocalTime.of(15, 0);
+        appointmentService.bookAppointment(patient.getId(), doctor.getId(), date.plusWeeks(2), time, "Existing booking");
+
+        SeriesResult strict = appointmentService.bookSeries(new SeriesRequest(
+                patient.getId(), doctor.getId(), date, time, "FREQ=WEEKLY;COUNT=4", "Follow-up", true));
+        assertEquals(0, strict.booked());
+        assertEquals(BookingResult.Outcome.CONFLICT, strict.occurrences().get(2).outcome());
+        assertEquals(1, appointmentRepository.count());
+
+        SeriesResult lenient = appointmentService.bookSeries(new SeriesRequest(
+                patient.getId(), doctor.getId(), date, time, "FREQ=WEEKLY;COUNT=4", "Follow-up", false));
+        assertEquals(3, lenient.booked());
+        assertEquals(4, appointmentRepository.count());
+        assertTrue(slotOccupancyIndex.checkConsistency().consistent());
+    }
+
+    @Test
+    void testSeriesBeyondTheHorizonIsRejected() {
+        LocalTime time = LocalTime.of(15, 0);
+        for (String rule : List.of("FREQ=MONTHLY;INTERVAL=2147483647;COUNT=52", "FREQ=MONTHLY;INTERVAL=12;COUNT=4",
+                "FREQ=DAILY;INTERVAL=1000;UNTIL=99991231")) {
+            assertThrows(IllegalArgumentException.class, () -> appointmentService.bookSeries(new SeriesRequest(
+                    patient.getId(), doctor.getId(), date, time, rule, "Follow-up", false)), rule);
+        }
+        assertEquals(0, appointmentRepository.count());
+
+        List<LocalDate> dates = RecurrenceRule.parse("FREQ=MONTHLY;INTERVAL=6;COUNT=3")
+                .occurrences(LocalDate.of(2030, 1, 31), 52, LocalDate.of(2031, 1, 31));
+        assertEquals(List.of(LocalDate.of(2030, 1, 31), LocalDate.of(2030, 7, 31), LocalDate.of(2031, 1, 31)), dates);
+    }
+}
@@ -0,0 +1,113 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.*;
+import com.examly.springapp.repository.*;
+import com.examly.springapp.support.ClinicFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Holds only cover slots the doctor works, only their holder can book them, a patient can only
+ * hold a few at once, and lapsed holds give the slot back.
+ */
+@SpringBootTest
+public class SlotHoldServiceTest {
+
+    @Autowired
+    private ClinicFixture clinicFixture;
+    @Autowired
+    private SlotHoldService slotHoldService;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private DoctorAvailabilityRepository availabilityRepository;
+
+    private Patient patient;
+    private Patient other;
+    private Doctor doctor;
+    private LocalDate date;
+
+    @BeforeEach
+    void setup() {
+        ClinicFixture.Clinic clinic = clinicFixture.reset();
+        patient = clinic.patient();
+        other = clinicFixture.otherPatient();
+        doctor = clinic.doctor();
+        date = LocalDate.now().plusDays(1);
+        availabilityRepository.save(DoctorAvailability.builder()
+                .doctor(doctor)
+                .dayOfWeek(date.getDayOfWeek().name())
+                .timeSlots(List.of("09:00", "09:30", "10:00", "10:30", "14:00"))
+                .build());
+    }
+
+    @AfterEach
+    void cleanup() {
+        // Other test classes delete doctors without their availability
+        availabilityRepository.deleteAll();
+    }
+
+    @Test
+    void testHeldSlotIsOnlyBookableByHolder() {
+        LocalTime time = LocalTime.of(14, 0);
+        SlotHoldService.Hold hold = slotHoldService.hold(patient.getId(), doctor.getId(), date, time);
+
+        assertThrows(IllegalStateException.class, () -> slotHoldService.hold(other.getId(), doctor.getId(), date, time));
+        assertThrows(IllegalStateException.class,
+                () -> appointmentService.bookAppointment(other.getId(), doctor.getId(), date, time, "Not the holder"));
+
+        appointmentService.bookAppointment(patient.getId(), doctor.getId(), date, time, "Holder booking");
+        assertEquals("Hold not found or already expired", slotHoldService.release(hold.id(), patient.getId(), false));
+    }
+
+    @Test
+    void testHoldsOutsideTheDoctorsScheduleAreRefused() {
+        assertThrows(IllegalArgumentException.class,
+                () -> slotHoldService.hold(patient.getId(), doctor.getId(), date, LocalTime.of(12, 0)));
+        assertThrows(IllegalArgumentException.class,
+                () -> slotHoldService.hold(patient.getId(), doctor.getId(), date.plusDays(1), LocalTime.of(9, 0)));
+        assertThrows(IllegalArgumentException.class,
+                () -> slotHoldService.hold(patient.getId(), -1L, date, LocalTime.of(9, 0)));
+    }
+
+    @Test
+    void testPatientCanOnlyHoldAFewSlotsAtOnce() {
+        SlotHoldService.Hold first = slotHoldService.hold(patient.getId(), doctor.getId(), date, LocalTime.of(9, 0));
+        slotHoldService.hold(patient.getId(), doctor.getId(), date, LocalTime.of(9, 30));
+        slotHoldService.hold(patient.getId(), doctor.getId(), date, LocalTime.of(10, 0));
+
+        assertThrows(IllegalStateException.class,
+                () -> slotHoldService.hold(patient.getId(), doctor.getId(), date, LocalTime.of(10, 30)));
+        // Refreshing a slot already held does not count against the cap
+        slotHoldService.hold(patient.getId(), doctor.getId(), date, LocalTime.of(9, 30));
+        // Other patients are unaffected
+        slotHoldService.hold(other.getId(), doctor.getId(), date, LocalTime.of(10, 30));
+
+        slotHoldService.release(first.id(), patient.getId(), false);
+        slotHoldService.hold(patient.getId(), doctor.getId(), date, LocalTime.of(14, 0));
+    }
+
+    @Test
+    void testLapsedHoldGivesTheSlotBack() throws InterruptedException {
+        LocalTime time = LocalTime.of(9, 0);
+        SlotHoldService.Hold hold = slotHoldService.holdForOffer(patient.getId(), doctor.getId(), date, time, 1);
+        assertTrue(slotHoldService.isHeld(hold.id()));
+        assertThrows(IllegalStateException.class, () -> slotHoldService.hold(other.getId(), doctor.getId(), date, time));
+
+        Thread.sleep(1100);
+        slotHoldService.sweepExpired();
+
+        assertFalse(slotHoldService.isHeld(hold.id()));
+        assertEquals("Hold not found or already expired", slotHoldService.release(hold.id(), patient.getId(), false));
+        slotHoldService.hold(other.getId(), doctor.getId(), date, time);
+    }
+}
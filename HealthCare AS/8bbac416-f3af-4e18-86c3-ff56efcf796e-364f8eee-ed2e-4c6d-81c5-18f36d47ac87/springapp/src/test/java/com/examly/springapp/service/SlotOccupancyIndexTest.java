@@ -0,0 +1,96 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.*;
+import com.examly.springapp.repository.*;
+import com.examly.springapp.support.ClinicFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rebuilds swap in a fresh map without losing claims of running transactions, the consistency
+ * check does not report those claims as drift, and past days are evicted.
+ */
+@SpringBootTest
+public class SlotOccupancyIndexTest {
+
+    @Autowired
+    private ClinicFixture clinicFixture;
+    @Autowired
+    private SlotOccupancyIndex slotOccupancyIndex;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Patient patient;
+    private Doctor doctor;
+    private LocalDate date;
+
+    @BeforeEach
+    void setup() {
+        ClinicFixture.Clinic clinic = clinicFixture.reset();
+        patient = clinic.patient();
+        doctor = clinic.doctor();
+        date = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    void testRebuildKeepsClaimsOfRunningTransactions() {
+        LocalTime time = LocalTime.of(9, 0);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertTrue(slotOccupancyIndex.tryOccupy(doctor.getId(), date, time));
+
+            // A repair from another request while this booking has not committed
+            SlotOccupancyIndex.ConsistencyReport report = CompletableFuture.supplyAsync(() -> {
+                SlotOccupancyIndex.ConsistencyReport before = slotOccupancyIndex.checkConsistency();
+                slotOccupancyIndex.rebuild();
+                return before;
+            }).join();
+            assertTrue(report.consistent(), "in-flight claim reported as drift: " + report);
+            assertTrue(slotOccupancyIndex.isOccupied(doctor.getId(), date, time));
+            assertFalse(slotOccupancyIndex.tryOccupy(doctor.getId(), date, time));
+
+            status.setRollbackOnly();
+        });
+        assertFalse(slotOccupancyIndex.isOccupied(doctor.getId(), date, time));
+        assertTrue(slotOccupancyIndex.checkConsistency().consistent());
+    }
+
+    @Test
+    void testDriftIsReportedAndRepaired() {
+        appointmentService.bookAppointment(patient.getId(), doctor.getId(), date, LocalTime.of(10, 0), "Check-up");
+        // Outside a transaction the claim counts as committed, but there is no row behind it
+        slotOccupancyIndex.occupy(doctor.getId(), date, LocalTime.of(11, 0));
+
+        SlotOccupancyIndex.ConsistencyReport report = slotOccupancyIndex.checkConsistency();
+        assertFalse(report.consistent());
+        assertEquals(1, report.staleInIndex().size());
+        assertTrue(report.missingFromIndex().isEmpty());
+
+        slotOccupancyIndex.rebuild();
+        assertTrue(slotOccupancyIndex.checkConsistency().consistent());
+        assertTrue(slotOccupancyIndex.isOccupied(doctor.getId(), date, LocalTime.of(10, 0)));
+        assertFalse(slotOccupancyIndex.isOccupied(doctor.getId(), date, LocalTime.of(11, 0)));
+    }
+
+    @Test
+    void testPastDaysAreEvicted() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        slotOccupancyIndex.occupy(doctor.getId(), yesterday, LocalTime.of(9, 0));
+        slotOccupancyIndex.occupy(doctor.getId(), date, LocalTime.of(9, 0));
+
+        slotOccupancyIndex.evictPastDays();
+        assertFalse(slotOccupancyIndex.isOccupied(doctor.getId(), yesterday, LocalTime.of(9, 0)));
+        assertTrue(slotOccupancyIndex.isOccupied(doctor.getId(), date, LocalTime.of(9, 0)));
+    }
+}
@@ -0,0 +1,96 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.JwtPrincipal;
+import com.examly.springapp.model.JwtUtil;
+import com.examly.springapp.model.Role;
+import com.examly.springapp.model.VerifiedTokenCache;
+import com.examly.springapp.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Logged-out tokens are rejected, survive a reload from the table and are purged once expired; a
+ * reload mirrors the table rather than adding to what is in memory.
+ */
+@SpringBootTest
+public class TokenRevocationServiceTest {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setup() {
+        revokedTokenRepository.deleteAll();
+        tokenRevocationService.load();
+    }
+
+    @Test
+    void testRevokedTokenSurvivesReload() {
+        String token = jwtUtil.generateToken("patient@example.com", Role.PATIENT);
+        JwtPrincipal principal = verifiedTokenCache.verify(token);
+        assertNotNull(principal.tokenId());
+        assertFalse(tokenRevocationService.isRevoked(principal.tokenId()));
+
+        assertTrue(tokenRevocationService.revoke(token, principal));
+        assertTrue(tokenRevocationService.isRevoked(principal.tokenId()));
+        assertTrue(revokedTokenRepository.existsById(principal.tokenId()));
+
+        // A fresh load from the table, as after a restart
+        TokenRevocationService restarted = new TokenRevocationService(revokedTokenRepository, verifiedTokenCache);
+        restarted.load();
+        assertTrue(restarted.isRevoked(principal.tokenId()));
+
+        String other = jwtUtil.generateToken("patient@example.com", Role.PATIENT);
+        assertFalse(restarted.isRevoked(jwtUtil.verify(other).tokenId()));
+    }
+
+    @Test
+    void testExpiredEntriesArePurged() {
+        JwtPrincipal lapsing = new JwtPrincipal("patient@example.com", "ROLE_PATIENT", UUID.randomUUID().toString(),
+                Instant.now().plusMillis(200));
+        assertTrue(tokenRevocationService.revoke("unused", lapsing));
+        assertEquals(1, tokenRevocationService.size());
+
+        await(Instant.now().plusMillis(300));
+        tokenRevocationService.purgeExpired();
+        assertEquals(0, tokenRevocationService.size());
+        assertFalse(tokenRevocationService.isRevoked(lapsing.tokenId()));
+        assertEquals(0, revokedTokenRepository.count());
+    }
+
+    @Test
+    void testReloadDropsRowsThatAreGone() {
+        JwtPrincipal principal = new JwtPrincipal("patient@example.com", "ROLE_PATIENT", UUID.randomUUID().toString(),
+                Instant.now().plusSeconds(3600));
+        assertTrue(tokenRevocationService.revoke("unused", principal));
+
+        revokedTokenRepository.deleteAll();
+        tokenRevocationService.load();
+        assertFalse(tokenRevocationService.isRevoked(principal.tokenId()));
+        assertEquals(0, tokenRevocationService.size());
+    }
+
+    private static void await(Instant deadline) {
+        while (Instant.now().isBefore(deadline)) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.Admin;
+import com.examly.springapp.model.Patient;
+import com.examly.springapp.model.Role;
+import com.examly.springapp.repository.AdminRepository;
+import com.examly.springapp.repository.PatientRepository;
+import com.examly.springapp.repository.UserIdentityRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Any user resolves with one lookup instead of three table probes, stale directory rows heal, and
+ * only committed directory writes reach memory.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class UserDirectoryTest {
+
+    private static final String ADMIN_EMAIL = "directory.admin@example.com";
+    private static final String PATIENT_EMAIL = "directory.patient@example.com";
+
+    @Autowired
+    private UserDirectory userDirectory;
+    @Autowired
+    private MyUserDetailsService userDetailsService;
+    @Autowired
+    private PatientService patientService;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private AdminRepository adminRepository;
+    @Autowired
+    private UserIdentityRepository userIdentityRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setup() {
+        adminRepository.findByEmail(ADMIN_EMAIL).ifPresent(adminRepository::delete);
+        patientRepository.findByEmail(PATIENT_EMAIL).ifPresent(patientRepository::delete);
+        patientRepository.findByEmail("directory.renamed@example.com").ifPresent(patientRepository::delete);
+        userDirectory.forget(ADMIN_EMAIL);
+        userDirectory.forget(PATIENT_EMAIL);
+        userDirectory.forget("directory.renamed@example.com");
+    }
+
+    @Test
+    void testAdminLoginIsOneLookup() {
+        // Saved around the services, as seed data is; the first lookup finds and records it
+        Admin admin = adminRepository.save(Admin.builder().name("Directory Admin").email(ADMIN_EMAIL)
+                .phoneNumber("9876543210").password("secret").role(Role.ADMIN).build());
+        assertEquals(admin.getId(), userDetailsService.getUserId(ADMIN_EMAIL));
+        assertTrue(userIdentityRepository.existsById(ADMIN_EMAIL));
+
+        assertEquals("ADMIN", userDetailsService.getUserRole(" Directory.Admin@Example.com "));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        UserDetails user = userDetailsService.loadUserByUsername(ADMIN_EMAIL);
+        assertEquals("ROLE_ADMIN", user.getAuthorities().iterator().next().getAuthority());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testEmailChangesAndDeletesAreFollowed() {
+        Patient patient = patientService.createPatient(Patient.builder().name("Directory Patient").email(PATIENT_EMAIL)
+                .phoneNumber("1234567890").dateOfBirth(LocalDate.of(1990, 1, 1)).build());
+        assertEquals(patient.getId(), userDetailsService.getUserId(PATIENT_EMAIL));
+
+        Patient renamed = Patient.builder().name("Directory Patient").email("directory.renamed@example.com")
+                .phoneNumber("1234567890").dateOfBirth(LocalDate.of(1990, 1, 1)).build();
+        patientService.updatePatient(patient.getId(), renamed);
+        assertNull(userDetailsService.getUserRole(PATIENT_EMAIL));
+        assertFalse(userIdentityRepository.existsById(PATIENT_EMAIL));
+        assertEquals("PATIENT", userDetailsService.getUserRole("directory.renamed@example.com"));
+
+        // Removed around the services: the stale row is dropped on first use
+        patientRepository.deleteById(patient.getId());
+        assertThrows(UsernameNotFoundException.class,
+                () -> userDetailsService.loadUserByUsername("directory.renamed@example.com"));
+        assertFalse(userIdentityRepository.existsById("directory.renamed@example.com"));
+    }
+
+    @Test
+    void testAnswersAreCheckedAgainstTheUser() {
+        Patient patient = patientService.createPatient(Patient.builder().name("Directory Patient").email(PATIENT_EMAIL)
+                .phoneNumber("1234567890").dateOfBirth(LocalDate.of(1990, 1, 1)).build());
+        assertTrue(userDirectory.isRegistered(PATIENT_EMAIL));
+
+        // Removed around the services while the directory still points at it
+        patientRepository.deleteById(patient.getId());
+        assertNull(userDetailsService.getUserId(PATIENT_EMAIL));
+        assertNull(userDetailsService.getUserRole(PATIENT_EMAIL));
+        assertFalse(userDirectory.isRegistered(PATIENT_EMAIL));
+    }
+
+    @Test
+    void testRolledBackRecordIsNotServed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userDirectory.record(Role.PATIENT, 424242L, PATIENT_EMAIL);
+            status.setRollbackOnly();
+        });
+        assertTrue(userDirectory.resolve(PATIENT_EMAIL).isEmpty());
+        assertFalse(userIdentityRepository.existsById(PATIENT_EMAIL));
+    }
+}
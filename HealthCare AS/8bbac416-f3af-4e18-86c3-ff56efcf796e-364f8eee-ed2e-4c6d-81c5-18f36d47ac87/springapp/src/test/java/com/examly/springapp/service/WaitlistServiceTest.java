@@ -0,0 +1,148 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.*;
+import com.examly.springapp.model.WaitlistEntry.WaitlistStatus;
+import com.examly.springapp.repository.*;
+import com.examly.springapp.support.ClinicFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Freed slots are offered to waiters, who accept or pass them on; waiters keep their place when an
+ * offer cannot be made.
+ */
+@SpringBootTest
+public class WaitlistServiceTest {
+
+    @Autowired
+    private ClinicFixture clinicFixture;
+    @Autowired
+    private WaitlistService waitlistService;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+
+    private Patient patient;
+    private Patient otherPatient;
+    private Doctor doctor;
+    private LocalDate date;
+
+    @BeforeEach
+    void setup() {
+        ClinicFixture.Clinic clinic = clinicFixture.reset();
+        patient = clinic.patient();
+        otherPatient = clinicFixture.otherPatient();
+        doctor = clinic.doctor();
+        date = LocalDate.now().plusDays(2);
+    }
+
+    @Test
+    void testFreedSlotIsOfferedAndBookedOnAccept() throws InterruptedException {
+        Appointment booked = appointmentService.bookAppointment(otherPatient.getId(), doctor.getId(), date, LocalTime.of(9, 0), "Check-up");
+        WaitlistEntry entry = waitlistService.join(patient.getId(), doctor.getId(), date, date, "Chest pain");
+
+        appointmentService.cancelAppointment(booked.getId());
+        WaitlistEntry offered = awaitEntry(entry.getId(), e -> e.getStatus() == WaitlistStatus.OFFERED);
+        assertEquals(date, offered.getOfferedDate());
+        assertEquals(LocalTime.of(9, 0), offered.getOfferedTime());
+        // Offered, not booked: the patient has not answered yet
+        assertEquals(0, appointmentRepository.findByPatient(patient).size());
+
+        String result = waitlistService.acceptOffer(entry.getId(), patient.getId(), false);
+        assertTrue(result.contains("successfully"), result);
+        WaitlistEntry promoted = waitlistRepository.findById(entry.getId()).orElseThrow();
+        assertEquals(WaitlistStatus.PROMOTED, promoted.getStatus());
+        assertNotNull(promoted.getAppointmentId());
+        assertNull(promoted.getOfferedTime());
+    }
+
+    @Test
+    void testDeclinedSlotGoesToTheNextWaiter() throws InterruptedException {
+        Appointment booked = appointmentService.bookAppointment(otherPatient.getId(), doctor.getId(), date, LocalTime.of(9, 0), "Check-up");
+        WaitlistEntry first = waitlistService.join(patient.getId(), doctor.getId(), date, date, "Chest pain");
+        WaitlistEntry second = waitlistService.join(otherPatient.getId(), doctor.getId(), date, date, "Follow-up");
+
+        appointmentService.cancelAppointment(booked.getId());
+        awaitEntry(first.getId(), e -> e.getStatus() == WaitlistStatus.OFFERED);
+        assertTrue(waitlistService.acceptOffer(first.getId(), otherPatient.getId(), false).contains("your own"));
+
+        assertTrue(waitlistService.declineOffer(first.getId(), patient.getId(), false).contains("successfully"));
+        awaitEntry(second.getId(), e -> e.getStatus() == WaitlistStatus.OFFERED);
+        // The first waiter keeps their place for other slots
+        assertEquals(WaitlistStatus.WAITING, waitlistRepository.findById(first.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testFailedAcceptGivesTheSlotBack() throws InterruptedException {
+        Appointment booked = appointmentService.bookAppointment(otherPatient.getId(), doctor.getId(), date, LocalTime.of(9, 0), "Check-up");
+        WaitlistEntry entry = waitlistService.join(patient.getId(), doctor.getId(), date, date, "Chest pain");
+        appointmentService.cancelAppointment(booked.getId());
+        awaitEntry(entry.getId(), e -> e.getStatus() == WaitlistStatus.OFFERED);
+
+        // Booking fails for a reason other than a lapsed hold
+        patientRepository.deleteById(patient.getId());
+        String result = waitlistService.acceptOffer(entry.getId(), null, true);
+        assertTrue(result.startsWith("Offer could not be booked"), result);
+        assertEquals(WaitlistStatus.WAITING, waitlistRepository.findById(entry.getId()).orElseThrow().getStatus());
+
+        // The hold is gone, so the slot can be booked right away instead of after the offer TTL
+        appointmentService.bookAppointment(otherPatient.getId(), doctor.getId(), date, LocalTime.of(9, 0), "Check-up again");
+    }
+
+    @Test
+    void testWaiterKeepsPlaceWhenSlotIsTakenFirst() throws InterruptedException {
+        WaitlistEntry entry = waitlistService.join(patient.getId(), doctor.getId(), date, date, "Chest pain");
+        appointmentService.bookAppointment(otherPatient.getId(), doctor.getId(), date, LocalTime.of(10, 0), "Check-up");
+
+        // A release for a slot that is booked again by the time the waitlist sees it
+        waitlistService.onSlotReleased(new SlotReleasedEvent(doctor.getId(), date, LocalTime.of(10, 0)));
+        assertEquals(WaitlistStatus.WAITING, waitlistRepository.findById(entry.getId()).orElseThrow().getStatus());
+
+        Appointment booked = appointmentService.bookAppointment(otherPatient.getId(), doctor.getId(), date, LocalTime.of(11, 0), "Check-up");
+        appointmentService.cancelAppointment(booked.getId());
+        awaitEntry(entry.getId(), e -> e.getStatus() == WaitlistStatus.OFFERED);
+    }
+
+    @Test
+    void testPruneExpiresEntriesWhoseWindowHasPassed() {
+        WaitlistEntry stale = waitlistRepository.save(WaitlistEntry.builder()
+                .patientId(patient.getId()).doctorId(doctor.getId())
+                .fromDate(LocalDate.now().minusDays(5)).toDate(LocalDate.now().minusDays(1))
+                .reason("Chest pain").createdAt(LocalDateTime.now().minusDays(6)).build());
+        WaitlistEntry current = waitlistService.join(patient.getId(), doctor.getId(), date, date, "Follow-up");
+
+        waitlistService.pruneExpired();
+
+        assertEquals(WaitlistStatus.EXPIRED, waitlistRepository.findById(stale.getId()).orElseThrow().getStatus());
+        assertEquals(WaitlistStatus.WAITING, waitlistRepository.findById(current.getId()).orElseThrow().getStatus());
+    }
+
+    // Releases are handled on the waitlist executor
+    private WaitlistEntry awaitEntry(Long id, Predicate<WaitlistEntry> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (true) {
+            WaitlistEntry entry = waitlistRepository.findById(id).orElseThrow();
+            if (condition.test(entry)) {
+                return entry;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                fail("Waitlist entry " + id + " stayed " + entry.getStatus());
+            }
+            Thread.sleep(50);
+        }
+    }
+}
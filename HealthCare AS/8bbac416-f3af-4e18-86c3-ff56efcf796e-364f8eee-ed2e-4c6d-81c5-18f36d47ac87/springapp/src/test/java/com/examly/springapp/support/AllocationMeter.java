@@ -0,0 +1,48 @@
+package com.examly.springapp.support;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Time and heap allocation of a piece of code on the current thread, for the tests that compare an
+ * old and a new path. Allocation is read from HotSpot's per-thread counter, which is exact and
+ * unaffected by GC, so comparisons stay stable where timings would not be.
+ */
+public final class AllocationMeter {
+
+    private AllocationMeter() {
+    }
+
+    /**
+     * Runs {@code action} {@code warmup} times unmeasured so the JIT and lazily built caches settle,
+     * then {@code runs} times measured, and returns the cost per run.
+     */
+    public static Cost measure(int warmup, int runs, Action action) throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            action.run();
+        }
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            action.run();
+        }
+        long nanos = System.nanoTime() - start;
+        return new Cost(nanos / runs, (allocatedBytes() - allocated) / runs);
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    public record Cost(long nanos, long bytes) {
+
+        @Override
+        public String toString() {
+            return nanos + " ns / " + bytes + " bytes";
+        }
+    }
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,58 @@
+package com.examly.springapp.support;
+
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.examly.springapp.model.Doctor;
+import com.examly.springapp.model.Patient;
+import com.examly.springapp.repository.AppointmentRepository;
+import com.examly.springapp.repository.DoctorAvailabilityRepository;
+import com.examly.springapp.repository.DoctorRepository;
+import com.examly.springapp.repository.PatientRepository;
+import com.examly.springapp.repository.WaitlistRepository;
+import com.examly.springapp.service.SlotOccupancyIndex;
+
+/**
+ * The clinic most booking tests start from: every appointment, waitlist entry, availability,
+ * patient and doctor removed, then one patient and one doctor saved and the occupancy index
+ * rebuilt to match. Found by component scan like any other bean under com.examly.springapp, so
+ * the tests using it share one application context.
+ */
+@Component
+public class ClinicFixture {
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+    @Autowired
+    private DoctorAvailabilityRepository availabilityRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private SlotOccupancyIndex slotOccupancyIndex;
+
+    public Clinic reset() {
+        waitlistRepository.deleteAll();
+        appointmentRepository.deleteAll();
+        availabilityRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+        Patient patient = patientRepository.save(Patient.builder().name("Jane Roe").email("jane.roe@example.com").phoneNumber("1234567890").dateOfBirth(LocalDate.of(1988, 4, 2)).build());
+        Doctor doctor = doctorRepository.save(Doctor.builder().name("Dr. Stone").specialization("Cardiology").email("stone@hospital.com").phoneNumber("9876543210").build());
+        slotOccupancyIndex.rebuild();
+        return new Clinic(patient, doctor);
+    }
+
+    // A second patient for tests about who may act on an appointment or slot
+    public Patient otherPatient() {
+        return patientRepository.save(Patient.builder().name("John Doe").email("john.doe@example.com").phoneNumber("1234567891").dateOfBirth(LocalDate.of(1990, 1, 15)).build());
+    }
+
+    public record Clinic(Patient patient, Doctor doctor) {
+    }
+}